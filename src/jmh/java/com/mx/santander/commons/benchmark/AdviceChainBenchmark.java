@@ -0,0 +1,278 @@
+package com.mx.santander.commons.benchmark;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.mx.santander.commons.advice.AdvicePlanCache;
+import com.mx.santander.commons.autoconfigurations.CommonsAutoConfiguration;
+import com.mx.santander.commons.benchmark.SyntheticController.SyntheticRequest;
+import com.mx.santander.commons.channel.dao.db.IChannelsLookup;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity.HorarioServicio;
+import com.mx.santander.commons.channel.registry.ChannelSnapshot;
+import com.mx.santander.commons.channel.schedule.ChannelServiceScheduler;
+import com.mx.santander.commons.channel.schedule.ServiceClock;
+import com.mx.santander.commons.channel.security.ChannelGuard;
+import com.mx.santander.commons.channel.security.aspec.ChannelAccessAspect;
+import com.mx.santander.commons.constant.ConstCommons;
+import com.mx.santander.commons.dto.DTOResponseWrapper;
+import com.mx.santander.commons.dto.aspect.DTOAspect;
+import com.mx.santander.commons.model.session.entity.PrincipalUser;
+import com.mx.santander.commons.session.security.SessionGuard;
+import com.mx.santander.commons.session.security.aspec.SesionAspect;
+import com.mx.santander.commons.session.security.aspec.SesionRoleAspect;
+import com.mx.santander.commons.timer.ServiceTimer;
+import com.mx.santander.commons.timer.aspects.TimerAspect;
+
+/**
+ * Benchmark del costo por peticion de los aspectos de commons sobre un
+ * controller sintetico, con {@link #advice} se elige si se mide cada aspecto
+ * por separado, la cadena completa de aspectos, el interceptor unico de
+ * commons o el controller sin aspectos como referencia, la peticion y la sesion
+ * se simulan con los mocks de spring-test, se ejecuta con:
+ * 
+ * <pre>
+ * mvn -Pjmh verify
+ * </pre>
+ * 
+ * el perfil agrega el profiler gc para reportar la tasa de asignacion de
+ * memoria por operacion
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdviceChainBenchmark {
+    /**
+     * canal de las peticiones
+     */
+    private static final String CANAL = "BENCH";
+    /**
+     * aspectos a medir
+     */
+    @Param({ "none", "timer", "dto", "sessionRole", "session", "channel", "chain", "interceptor" })
+    private String advice;
+    /**
+     * contexto de spring con los aspectos a medir
+     */
+    private AnnotationConfigApplicationContext context;
+    /**
+     * controller con los aspectos aplicados
+     */
+    private SyntheticController controller;
+    /**
+     * peticion al servicio
+     */
+    private SyntheticRequest request;
+
+    /**
+     * Levanta el contexto con los aspectos elegidos y simula la peticion actual
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.register(BenchmarkConfiguration.class);
+        for (Class<?> type : adviceTypes(advice)) {
+            context.registerBeanDefinition(type.getName(), new RootBeanDefinition(type));
+        }
+        context.refresh();
+        // abrimos el canal como lo hace el registro al cargar los canales
+        context.getBean(ChannelServiceScheduler.class)
+                .onSnapshot(context.getBean(BenchmarkConfiguration.class).snapshot);
+        controller = context.getBean(SyntheticController.class);
+        request = new SyntheticRequest("1");
+
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("POST", "/benchmark/consulta");
+        httpRequest.addHeader(ConstCommons.XCHANNEL, CANAL);
+        MockHttpSession session = new MockHttpSession();
+        PrincipalUser principal = new PrincipalUser();
+        principal.setRoles(Collections.singletonList(SyntheticController.ROLE));
+        principal.setLastAccess(new Date());
+        session.setAttribute(PrincipalUser.ATTRIBUTE_SESSION_NAME, principal);
+        httpRequest.setSession(session);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+    }
+
+    /**
+     * Cierra el contexto
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    /**
+     * invoca el servicio del controller a traves de los aspectos elegidos
+     *
+     * @return respuesta del servicio
+     */
+    @Benchmark
+    public Object invoke() {
+        return controller.consulta(request);
+    }
+
+    /**
+     * clases de los aspectos o configuraciones a registrar
+     *
+     * @param advice
+     *            aspectos a medir
+     * @return clases a registrar en el contexto
+     */
+    private static Class<?>[] adviceTypes(String advice) {
+        switch (advice) {
+        case "timer":
+            return new Class<?>[] { TimerAspect.class };
+        case "dto":
+            return new Class<?>[] { DTOAspect.class };
+        case "sessionRole":
+            return new Class<?>[] { SesionRoleAspect.class };
+        case "session":
+            return new Class<?>[] { SesionAspect.class };
+        case "channel":
+            return new Class<?>[] { ChannelAccessAspect.class };
+        case "chain":
+            return new Class<?>[] { TimerAspect.class, DTOAspect.class, SesionRoleAspect.class, SesionAspect.class,
+                    ChannelAccessAspect.class };
+        case "interceptor":
+            return new Class<?>[] { CommonsAutoConfiguration.InterceptorExecution.class };
+        default:
+            return new Class<?>[0];
+        }
+    }
+
+    /**
+     * Configuracion con los beans que usan los aspectos, el canal se consulta de
+     * una fotografia en memoria en lugar del registro de canales
+     *
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    public static class BenchmarkConfiguration {
+        /**
+         * fotografia con el canal de las peticiones abierto todo el dia
+         */
+        private final ChannelSnapshot snapshot;
+
+        /**
+         * Constructor de la configuracion, arma la fotografia de canales
+         */
+        public BenchmarkConfiguration() {
+            HorarioServicio horario = new HorarioServicio();
+            horario.setDias(Arrays.asList("Lun", "Mar", "Mie", "Jue", "Vie", "Sab", "Dom"));
+            horario.setHoraInicio("00:00:00");
+            horario.setHoraFin("23:59:59");
+            ChannelsEntity channel = new ChannelsEntity();
+            channel.setCanal(CANAL);
+            channel.setNombre(CANAL);
+            channel.setActivo(true);
+            channel.setHorarioServicio(horario);
+            snapshot = new ChannelSnapshot(Collections.singletonList(channel), System.currentTimeMillis(), null);
+        }
+
+        /**
+         * @return {@link SyntheticController}
+         */
+        @Bean
+        public SyntheticController syntheticController() {
+            return new SyntheticController();
+        }
+
+        /**
+         * @return {@link AdvicePlanCache}
+         */
+        @Bean
+        public AdvicePlanCache advicePlanCache() {
+            return new AdvicePlanCache();
+        }
+
+        /**
+         * @return {@link ServiceTimer}
+         */
+        @Bean
+        public ServiceTimer serviceTimer() {
+            return new ServiceTimer();
+        }
+
+        /**
+         * @return {@link DTOResponseWrapper}
+         */
+        @Bean
+        public DTOResponseWrapper dtoResponseWrapper() {
+            return new DTOResponseWrapper();
+        }
+
+        /**
+         * @return {@link SessionGuard}
+         */
+        @Bean
+        public SessionGuard sessionGuard() {
+            return new SessionGuard();
+        }
+
+        /**
+         * @return {@link ChannelGuard}
+         */
+        @Bean
+        public ChannelGuard channelGuard() {
+            return new ChannelGuard();
+        }
+
+        /**
+         * @return {@link IChannelsLookup} sobre la fotografia en memoria
+         */
+        @Bean
+        public IChannelsLookup channelsLookup() {
+            return canal -> snapshot.getIndex().get(canal);
+        }
+
+        /**
+         * @return {@link ServiceClock}
+         */
+        @Bean
+        public ServiceClock serviceClock() {
+            return new ServiceClock(ZoneId.systemDefault());
+        }
+
+        /**
+         * @return {@link ChannelServiceScheduler}
+         */
+        @Bean
+        public ChannelServiceScheduler channelServiceScheduler() {
+            return new ChannelServiceScheduler();
+        }
+    }
+}
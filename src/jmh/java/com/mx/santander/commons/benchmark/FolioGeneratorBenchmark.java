@@ -0,0 +1,201 @@
+package com.mx.santander.commons.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+
+import com.mx.santander.commons.folio.FolioGenerator;
+import com.mx.santander.commons.folio.SnowflakeFolioGenerator;
+import com.mx.santander.commons.folio.TraceFolioGenerator;
+import com.mx.santander.commons.folio.UuidFolioGenerator;
+
+import brave.Tracer;
+import brave.Tracing;
+import zipkin2.reporter.Reporter;
+
+/**
+ * Benchmark de los generadores de folios de operacion, con {@link #generator}
+ * se elige el generador, se mide con un hilo y con varios hilos para ver la
+ * contencion de cada uno, en el caso de trace cada hilo tiene su propia traza
+ * activa como en una peticion, se ejecuta con:
+ *
+ * <pre>
+ * mvn -Pjmh verify
+ * </pre>
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FolioGeneratorBenchmark {
+    /**
+     * generador a medir
+     */
+    @Param({ "uuid", "snowflake", "trace" })
+    private String generator;
+    /**
+     * contexto de spring con el generador a medir
+     */
+    private AnnotationConfigApplicationContext context;
+    /**
+     * generador de folios
+     */
+    private FolioGenerator folioGenerator;
+
+    /**
+     * Levanta el contexto con el generador elegido
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.register(BenchmarkConfiguration.class);
+        // snowflake no arranca sin id de nodo
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Collections.singletonMap("com.mx.santander.commons.folio.node-id", (Object) "1")));
+        context.registerBeanDefinition(generator, new RootBeanDefinition(generatorType(generator)));
+        context.refresh();
+        folioGenerator = context.getBean(FolioGenerator.class);
+    }
+
+    /**
+     * Cierra el contexto
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * folio con un solo hilo
+     *
+     * @param trace
+     *            traza activa del hilo
+     * @return folio
+     */
+    @Benchmark
+    public String single(CurrentTrace trace) {
+        return folioGenerator.next();
+    }
+
+    /**
+     * folio con varios hilos compitiendo
+     *
+     * @param trace
+     *            traza activa del hilo
+     * @return folio
+     */
+    @Benchmark
+    @Threads(8)
+    public String contended(CurrentTrace trace) {
+        return folioGenerator.next();
+    }
+
+    /**
+     * clase del generador a registrar
+     *
+     * @param generator
+     *            generador a medir
+     * @return clase del generador
+     */
+    private static Class<?> generatorType(String generator) {
+        switch (generator) {
+        case "snowflake":
+            return SnowflakeFolioGenerator.class;
+        case "trace":
+            return TraceFolioGenerator.class;
+        default:
+            return UuidFolioGenerator.class;
+        }
+    }
+
+    /**
+     * Traza activa en el hilo del benchmark como la que abre sleuth en cada
+     * peticion
+     *
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @State(Scope.Thread)
+    public static class CurrentTrace {
+        /**
+         * alcance de la traza en el hilo
+         */
+        private Tracer.SpanInScope scope;
+
+        /**
+         * Abre una traza en el hilo del benchmark
+         *
+         * @param benchmark
+         *            benchmark con el contexto de spring
+         */
+        @Setup(Level.Trial)
+        public void open(FolioGeneratorBenchmark benchmark) {
+            Tracer tracer = benchmark.context.getBean(Tracer.class);
+            scope = tracer.withSpanInScope(tracer.newTrace());
+        }
+
+        /**
+         * Cierra la traza del hilo
+         */
+        @TearDown(Level.Trial)
+        public void close() {
+            scope.close();
+        }
+    }
+
+    /**
+     * Configuracion con el trazador de brave que usa sleuth, los spans no se
+     * reportan
+     *
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Configuration
+    public static class BenchmarkConfiguration {
+        /**
+         * trazado sin reporte de spans
+         *
+         * @return {@link Tracing}
+         */
+        @Bean(destroyMethod = "close")
+        public Tracing tracing() {
+            return Tracing.newBuilder().spanReporter(Reporter.NOOP).build();
+        }
+
+        /**
+         * trazador de brave
+         *
+         * @param tracing
+         *            trazado
+         * @return {@link Tracer}
+         */
+        @Bean
+        public Tracer tracer(Tracing tracing) {
+            return tracing.tracer();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.mx.santander.commons.benchmark;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.mx.santander.commons.channel.anotation.ValidateHoursOfService;
+import com.mx.santander.commons.model.dto.RequestTO;
+import com.mx.santander.commons.model.dto.ResponseTO;
+import com.mx.santander.commons.session.anotation.AuthorizationRole;
+
+/**
+ * Controller sintetico sobre el que se aplican los aspectos de commons en los
+ * benchmarks, su servicio no hace trabajo para que solo se mida el costo de los
+ * aspectos
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class SyntheticController {
+    /**
+     * rol requerido por el servicio
+     */
+    public static final String ROLE = "BENCHMARK";
+
+    /**
+     * servicio con todas las validaciones de commons
+     *
+     * @param request
+     *            peticion
+     * @return respuesta
+     */
+    @RequestMapping("/benchmark/consulta")
+    @AuthorizationRole(ROLE)
+    @ValidateHoursOfService
+    public ResponseTO consulta(SyntheticRequest request) {
+        return new SyntheticResponse(request.getId());
+    }
+
+    /**
+     * peticion del servicio sintetico
+     */
+    public static class SyntheticRequest implements RequestTO {
+        /**
+         * identificador
+         */
+        private final String id;
+
+        /**
+         * Constructor de la peticion
+         *
+         * @param id
+         *            identificador
+         */
+        public SyntheticRequest(String id) {
+            this.id = id;
+        }
+
+        /**
+         * identificador
+         *
+         * @return id
+         */
+        public String getId() {
+            return id;
+        }
+    }
+
+    /**
+     * respuesta del servicio sintetico
+     */
+    public static class SyntheticResponse implements ResponseTO {
+        /**
+         * serial
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * identificador
+         */
+        private final String id;
+
+        /**
+         * Constructor de la respuesta
+         *
+         * @param id
+         *            identificador
+         */
+        public SyntheticResponse(String id) {
+            this.id = id;
+        }
+
+        /**
+         * identificador
+         *
+         * @return id
+         */
+        public String getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.mx.santander.commons.advice;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.mx.santander.commons.channel.anotation.NoValidateChannelOfService;
+import com.mx.santander.commons.channel.anotation.ValidateHoursOfService;
+import com.mx.santander.commons.session.anotation.AuthorizationRole;
+import com.mx.santander.commons.session.anotation.NonValidateSession;
+
+/**
+ * Plan inmutable de las validaciones que aplican a un metodo de controller, se
+ * calcula una sola vez por metodo a partir de sus anotaciones y del paquete
+ * donde esta declarado para que los aspectos no vuelvan a leer anotaciones ni a
+ * comparar el paquete en cada peticion
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class AdvicePlan {
+    /**
+     * sin rutas
+     */
+    private static final String[] NO_PATHS = new String[0];
+    /**
+     * indica si el metodo esta dentro de los paquetes a validar
+     */
+    private final boolean inScope;
+    /**
+     * indica si se valida la sesion
+     */
+    private final boolean validateSession;
+    /**
+     * roles permitidos, null si el metodo no esta anotado con
+     * {@link AuthorizationRole}
+     */
+    private final String[] roles;
+    /**
+     * indica si se valida el acceso del canal
+     */
+    private final boolean validateChannel;
+    /**
+     * indica si se valida el horario de servicio del canal
+     */
+    private final boolean validateHours;
+    /**
+     * rutas del servicio
+     */
+    private final String[] paths;
+
+    /**
+     * Calcula el plan del metodo
+     *
+     * @param method
+     *            metodo del controller
+     * @param packageScan
+     *            paquetes a validar
+     */
+    public AdvicePlan(Method method, String packageScan) {
+        this.inScope = method.getDeclaringClass().getName().startsWith(packageScan);
+        this.validateSession = !method.isAnnotationPresent(NonValidateSession.class);
+        AuthorizationRole authorizationRole = method.getAnnotation(AuthorizationRole.class);
+        this.roles = Objects.nonNull(authorizationRole) ? authorizationRole.value() : null;
+        this.validateChannel = !method.isAnnotationPresent(NoValidateChannelOfService.class);
+        this.validateHours = method.isAnnotationPresent(ValidateHoursOfService.class);
+        RequestMapping requestMapping = method.getAnnotation(RequestMapping.class);
+        if (Objects.isNull(requestMapping)) {
+            this.paths = NO_PATHS;
+        } else {
+            this.paths = requestMapping.value().length > 0 ? requestMapping.value() : requestMapping.path();
+        }
+    }
+
+    /**
+     * indica si el metodo esta dentro de los paquetes a validar
+     *
+     * @return true si aplican las validaciones
+     */
+    public boolean isInScope() {
+        return inScope;
+    }
+
+    /**
+     * indica si se valida la sesion
+     *
+     * @return true si no esta anotado con {@link NonValidateSession}
+     */
+    public boolean isValidateSession() {
+        return validateSession;
+    }
+
+    /**
+     * indica si se validan roles
+     *
+     * @return true si esta anotado con {@link AuthorizationRole}
+     */
+    public boolean isValidateRoles() {
+        return Objects.nonNull(roles);
+    }
+
+    /**
+     * roles permitidos, no se debe modificar el arreglo
+     *
+     * @return roles o null si no se validan roles
+     */
+    public String[] getRoles() {
+        return roles;
+    }
+
+    /**
+     * indica si se valida el acceso del canal
+     *
+     * @return true si no esta anotado con {@link NoValidateChannelOfService}
+     */
+    public boolean isValidateChannel() {
+        return validateChannel;
+    }
+
+    /**
+     * indica si se valida el horario de servicio del canal
+     *
+     * @return true si esta anotado con {@link ValidateHoursOfService}
+     */
+    public boolean isValidateHours() {
+        return validateHours;
+    }
+
+    /**
+     * indica si aplica alguna validacion de canal
+     *
+     * @return true si se valida el acceso o el horario de servicio del canal
+     */
+    public boolean isGuardChannel() {
+        return validateChannel || validateHours;
+    }
+
+    /**
+     * rutas del servicio, no se debe modificar el arreglo
+     *
+     * @return rutas de {@link RequestMapping}
+     */
+    public String[] getPaths() {
+        return paths;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mx.santander.commons.advice;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodClassKey;
+
+/**
+ * Cache de {@link AdvicePlan} por metodo de controller compartida por todos los
+ * aspectos, el interceptor y el filtro de rechazo temprano, el plan se calcula
+ * la primera vez que se invoca el metodo y las siguientes peticiones solo hacen
+ * una busqueda en el mapa, la llave es el metodo invocado junto con la clase
+ * destino y el plan se calcula sobre el metodo mas especifico de la clase
+ * destino, asi un metodo declarado en una interfaz o invocado por un proxy JDK
+ * resuelve las mismas anotaciones en todos los modos de ejecucion
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class AdvicePlanCache {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdvicePlanCache.class);
+    /**
+     * paquetes a validar
+     */
+    @Value("${com.mx.santander.commons.packageScan:com.mx.santander}")
+    private String packageScan;
+    /**
+     * planes por metodo y clase destino
+     */
+    private final Map<MethodClassKey, AdvicePlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public AdvicePlanCache() {
+        LOGGER.info("Inicia cache de planes de validacion por metodo");
+    }
+
+    /**
+     * obtiene el plan del metodo interceptado
+     *
+     * @param jp
+     *            join point
+     * @return {@link AdvicePlan}
+     */
+    public AdvicePlan get(JoinPoint jp) {
+        Object target = jp.getTarget();
+        return get(((MethodSignature) jp.getSignature()).getMethod(),
+                Objects.nonNull(target) ? AopUtils.getTargetClass(target) : null);
+    }
+
+    /**
+     * obtiene el plan del metodo en la clase destino, si no existe se calcula con
+     * el metodo mas especifico de la clase destino
+     *
+     * @param method
+     *            metodo invocado
+     * @param targetClass
+     *            clase destino, puede ser null
+     * @return {@link AdvicePlan}
+     */
+    public AdvicePlan get(Method method, Class<?> targetClass) {
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        AdvicePlan plan = plans.get(key);
+        if (Objects.nonNull(plan)) {
+            return plan;
+        }
+        return plans.computeIfAbsent(key, k -> {
+            Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+            LOGGER.debug("Se calcula el plan de validacion de:{}", specific);
+            return new AdvicePlan(specific, packageScan);
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.mx.santander.commons.advice;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.DeclarePrecedence;
+
+/**
+ * Precedencia de los aspectos de commons cuando se tejen con AspectJ en lugar
+ * de usar proxies de Spring AOP, AspectJ no toma en cuenta la anotacion Order
+ * por lo que se declara aqui el mismo orden: tiempos, formato de respuesta,
+ * roles, sesion y acceso por canal, no tiene advices por lo que Spring AOP lo
+ * ignora
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+@Aspect
+@DeclarePrecedence("com.mx.santander.commons.timer.aspects.TimerAspect, "
+        + "com.mx.santander.commons.dto.aspect.DTOAspect, "
+        + "com.mx.santander.commons.session.security.aspec.SesionRoleAspect, "
+        + "com.mx.santander.commons.session.security.aspec.SesionAspect, "
+        + "com.mx.santander.commons.channel.security.aspec.ChannelAccessAspect")
+public class CommonsAspectPrecedence {
+
+}
@@ -0,0 +1,155 @@
+package com.mx.santander.commons.advice;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.mx.santander.commons.channel.security.ChannelGuard;
+import com.mx.santander.commons.dto.DTOResponseWrapper;
+import com.mx.santander.commons.session.security.SessionGuard;
+import com.mx.santander.commons.timer.ServiceTimer;
+
+/**
+ * Interceptor unico que aplica en una sola invocacion las validaciones que de
+ * otro modo aplican los aspectos de tiempos, DTO, roles, sesion y canal, cada
+ * uno en su propio proxy, se respeta el mismo orden de los aspectos: tiempos,
+ * formato de respuesta, roles, sesion y acceso por canal, las funcionalidades
+ * deshabilitadas no tienen bean y se omiten
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class CommonsMethodInterceptor implements MethodInterceptor {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommonsMethodInterceptor.class);
+    /**
+     * planes de validacion por metodo
+     */
+    @Autowired
+    private AdvicePlanCache advicePlans;
+    /**
+     * medicion de tiempos de respuesta
+     */
+    @Autowired(required = false)
+    private ServiceTimer serviceTimer;
+    /**
+     * formato de respuestas
+     */
+    @Autowired(required = false)
+    private DTOResponseWrapper responseWrapper;
+    /**
+     * validaciones de sesion y roles
+     */
+    @Autowired(required = false)
+    private SessionGuard sessionGuard;
+    /**
+     * validaciones de acceso por canal
+     */
+    @Autowired(required = false)
+    private ChannelGuard channelGuard;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public CommonsMethodInterceptor() {
+        LOGGER.info("Inicia interceptor de commons");
+    }
+
+    /**
+     * Aplica las validaciones del plan del metodo y ejecuta el servicio
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // mismo metodo mas especifico con el que el pointcut eligio el metodo
+        Object target = invocation.getThis();
+        AdvicePlan plan = advicePlans.get(invocation.getMethod(),
+                Objects.nonNull(target) ? AopUtils.getTargetClass(target) : null);
+        if (Objects.nonNull(serviceTimer)) {
+            return serviceTimer.time(plan, () -> guarded(plan, invocation));
+        }
+        return guarded(plan, invocation);
+    }
+
+    /**
+     * Aplica el formato de respuesta y las validaciones de seguridad a los
+     * servicios dentro de los paquetes validos
+     *
+     * @param plan
+     *            plan de validacion del metodo
+     * @param invocation
+     *            invocacion del metodo
+     * @return respuesta del servicio
+     * @throws Throwable
+     *             exception
+     */
+    private Object guarded(AdvicePlan plan, MethodInvocation invocation) throws Throwable {
+        // validamos si el metodo esta dentro los paquetes validos
+        if (!plan.isInScope()) {
+            LOGGER.debug("El interceptor no aplica sobre:{}", invocation.getMethod().getDeclaringClass().getName());
+            return invocation.proceed();
+        }
+        if (Objects.nonNull(responseWrapper)) {
+            responseWrapper.logRequest(invocation.getArguments());
+        }
+        Object response = secured(plan, invocation);
+        return Objects.nonNull(responseWrapper) ? responseWrapper.wrap(response) : response;
+    }
+
+    /**
+     * Valida roles, sesion y canal en ese orden y ejecuta el servicio
+     *
+     * @param plan
+     *            plan de validacion del metodo
+     * @param invocation
+     *            invocacion del metodo
+     * @return respuesta del servicio
+     * @throws Throwable
+     *             exception
+     */
+    private Object secured(AdvicePlan plan, MethodInvocation invocation) throws Throwable {
+        if (Objects.nonNull(sessionGuard)) {
+            if (plan.isValidateRoles()) {
+                sessionGuard.validateRoleAccess(plan.getRoles());
+            }
+            if (plan.isValidateSession()) {
+                sessionGuard.validate();
+            }
+        }
+        if (Objects.nonNull(channelGuard) && plan.isGuardChannel()) {
+            return channelGuard.invoke(plan, invocation::proceed);
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * Pointcut de los metodos anotados directamente con {@link RequestMapping},
+     * equivalente al pointcut de los aspectos
+     *
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    public static class RequestMappingPointcut extends StaticMethodMatcherPointcut {
+
+        /**
+         * valida si el metodo de la clase destino esta anotado con
+         * {@link RequestMapping}
+         */
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return AopUtils.getMostSpecificMethod(method, targetClass).isAnnotationPresent(RequestMapping.class);
+        }
+    }
+}
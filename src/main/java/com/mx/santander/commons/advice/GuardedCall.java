@@ -0,0 +1,23 @@
+package com.mx.santander.commons.advice;
+
+/**
+ * Invocacion protegida por las validaciones de commons, la implementa tanto el
+ * aspecto que continua el join point como el interceptor que continua la
+ * invocacion del metodo
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+@FunctionalInterface
+public interface GuardedCall {
+
+    /**
+     * continua la ejecucion del servicio
+     *
+     * @return respuesta del servicio
+     * @throws Throwable
+     *             error del servicio
+     */
+    Object proceed() throws Throwable;
+
+}
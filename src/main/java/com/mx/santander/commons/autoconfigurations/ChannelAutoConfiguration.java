@@ -1,11 +1,28 @@
 package com.mx.santander.commons.autoconfigurations;
 
+import java.time.ZoneId;
+
+import org.aspectj.lang.Aspects;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
+import com.mx.santander.commons.channel.dao.cache.CachedChannelsDAO;
+import com.mx.santander.commons.channel.dao.file.ChannelsFileDAO;
+import com.mx.santander.commons.channel.invalidation.ChannelInvalidationBus;
+import com.mx.santander.commons.channel.invalidation.ChannelInvalidationEndpoint;
+import com.mx.santander.commons.channel.metrics.ChannelPublicMetrics;
+import com.mx.santander.commons.channel.registry.ChannelRegistry;
+import com.mx.santander.commons.channel.registry.ChannelSnapshotStore;
+import com.mx.santander.commons.channel.schedule.ChannelServiceScheduler;
+import com.mx.santander.commons.channel.schedule.ServiceClock;
+import com.mx.santander.commons.channel.security.ChannelGuard;
 import com.mx.santander.commons.channel.security.aspec.ChannelAccessAspect;
-import com.mx.santander.commons.channel.security.aspec.ChannelHoursOfServiceAspect;
 
 /**
  * Clase para configurar el acceso por canal a los servicios
@@ -16,6 +33,142 @@ import com.mx.santander.commons.channel.security.aspec.ChannelHoursOfServiceAspe
 @Configuration
 @ConditionalOnProperty(prefix = "com.mx.santander.commons.channel.access", name = "enable", havingValue = "true")
 public class ChannelAutoConfiguration {
+    /**
+     * Se inicializa {@link ChannelRegistry} para mantener los canales en memoria y
+     * evitar consultar BD en cada peticion
+     * 
+     * @return {@link ChannelRegistry}
+     */
+    @Bean
+    public ChannelRegistry channelRegistry() {
+        return new ChannelRegistry();
+    }
+
+    /**
+     * Se inicializa {@link ChannelSnapshotStore} para respaldar en disco la
+     * ultima fotografia de canales y arrancar sin esperar a BD
+     * 
+     * @return {@link ChannelSnapshotStore}
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.channel.access.snapshot", name = "enable", havingValue = "true")
+    public ChannelSnapshotStore channelSnapshotStore() {
+        return new ChannelSnapshotStore();
+    }
+
+    /**
+     * Se inicializa {@link ChannelsFileDAO} como dao primario de canales para leer
+     * los canales de un archivo local JSON o YAML en lugar de mongo
+     * 
+     * @param location
+     *            ubicacion del archivo
+     * @param mmap
+     *            true para leer el archivo mapeado en memoria
+     * @param reloadInterval
+     *            tiempo minimo en milisegundos entre revisiones del archivo
+     * @return {@link ChannelsFileDAO}
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.channel.access", name = "dao", havingValue = "file")
+    public ChannelsFileDAO channelsFileDao(
+            @Value("${com.mx.santander.commons.channel.access.file.location:classpath:channels.json}") String location,
+            @Value("${com.mx.santander.commons.channel.access.file.mmap:false}") boolean mmap,
+            @Value("${com.mx.santander.commons.channel.access.file.reload-interval:5000}") long reloadInterval) {
+        return new ChannelsFileDAO(location, mmap, reloadInterval);
+    }
+
+    /**
+     * Se inicializa {@link CachedChannelsDAO} como dao primario de canales para
+     * compartir los canales entre instancias a traves de redis y consultar mongo
+     * solo cuando no estan en cache, no aplica si los canales se leen de archivo,
+     * la conexion a redis se resuelve en el dao para no depender del orden de las
+     * configuraciones
+     * 
+     * @return {@link CachedChannelsDAO}
+     */
+    @Bean
+    @Primary
+    @ConditionalOnMissingBean(ChannelsFileDAO.class)
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.channel.access.cache", name = "enable", havingValue = "true")
+    public CachedChannelsDAO cachedChannelsDao() {
+        return new CachedChannelsDAO();
+    }
+
+    /**
+     * Se inicializa {@link ChannelInvalidationBus} para que un cambio en un canal
+     * se refleje en todas las instancias a traves de redis pub/sub, la conexion a
+     * redis se resuelve en el bus para no depender del orden de las
+     * configuraciones
+     * 
+     * @return {@link ChannelInvalidationBus}
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.channel.access.invalidation", name = "enable", havingValue = "true")
+    public ChannelInvalidationBus channelInvalidationBus() {
+        return new ChannelInvalidationBus();
+    }
+
+    /**
+     * Se inicializa {@link ChannelInvalidationEndpoint} para que un operador
+     * invalide un canal en todas las instancias despues de modificarlo en mongo
+     * 
+     * @return {@link ChannelInvalidationEndpoint}
+     */
+    @Bean
+    @ConditionalOnWebApplication
+    @ConfigurationProperties(prefix = "endpoints.channelinvalidation")
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.channel.access.invalidation", name = "enable", havingValue = "true")
+    public ChannelInvalidationEndpoint channelInvalidationEndpoint() {
+        return new ChannelInvalidationEndpoint();
+    }
+
+    /**
+     * Se inicializa {@link ServiceClock} con la zona horaria de los horarios de
+     * servicio, si no se informa se toma la zona horaria del sistema
+     * 
+     * @param zone
+     *            zona horaria, por ejemplo America/Mexico_City
+     * @return {@link ServiceClock}
+     */
+    @Bean
+    public ServiceClock serviceClock(@Value("${com.mx.santander.commons.channel.access.hours.zone:}") String zone) {
+        return new ServiceClock(zone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(zone));
+    }
+
+    /**
+     * Se inicializa {@link ChannelServiceScheduler} para abrir y cerrar los
+     * canales en el instante en que cambia su horario de servicio
+     * 
+     * @return {@link ChannelServiceScheduler}
+     */
+    @Bean
+    public ChannelServiceScheduler channelServiceScheduler() {
+        return new ChannelServiceScheduler();
+    }
+
+    /**
+     * Se inicializa {@link ChannelPublicMetrics} para exponer el estado de los
+     * canales en actuator
+     * 
+     * @return {@link ChannelPublicMetrics}
+     */
+    @Bean
+    public ChannelPublicMetrics channelPublicMetrics() {
+        return new ChannelPublicMetrics();
+    }
+
+    /**
+     * Se inicializa {@link ChannelGuard} con las validaciones de acceso por canal
+     * que usan el aspecto o el interceptor de commons
+     * 
+     * @return {@link ChannelGuard}
+     */
+    @Bean
+    public ChannelGuard channelGuard() {
+        return new ChannelGuard();
+    }
+
     /**
      * Se incializa {@link ChannelAccessAspect} para validar que solo canales
      * permitidos consuman la API
@@ -23,18 +176,19 @@ public class ChannelAutoConfiguration {
      * @return {@link ChannelAccessAspect}
      */
     @Bean
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.execution", name = "mode", havingValue = "aspect", matchIfMissing = true)
     public ChannelAccessAspect accessAspect() {
         return new ChannelAccessAspect();
     }
 
     /**
-     * Aspecto para determinar si el canal se encuentra dentro del horario de
-     * servicio para consumir servicio
+     * Se obtiene {@link ChannelAccessAspect} tejido por AspectJ
      * 
-     * @return {@link ChannelHoursOfServiceAspect}
+     * @return {@link ChannelAccessAspect}
      */
     @Bean
-    public ChannelHoursOfServiceAspect accessServiceAspec() {
-        return new ChannelHoursOfServiceAspect();
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.execution", name = "mode", havingValue = "weaving")
+    public ChannelAccessAspect wovenAccessAspect() {
+        return Aspects.aspectOf(ChannelAccessAspect.class);
     }
 }
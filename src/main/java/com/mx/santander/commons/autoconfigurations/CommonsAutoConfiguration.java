@@ -2,10 +2,16 @@ package com.mx.santander.commons.autoconfigurations;
 
 import java.util.concurrent.Executor;
 
+import org.aspectj.lang.Aspects;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -13,9 +19,26 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import com.mx.santander.commons.advice.AdvicePlanCache;
+import com.mx.santander.commons.advice.CommonsMethodInterceptor;
+import com.mx.santander.commons.dto.DTOResponseWrapper;
 import com.mx.santander.commons.dto.aspect.DTOAspect;
+import com.mx.santander.commons.dto.converter.EnvelopeHttpMessageConverter;
+import com.mx.santander.commons.filter.EarlyRejectionFilter;
+import com.mx.santander.commons.folio.FolioGenerator;
+import com.mx.santander.commons.folio.FolioGeneratorRegistrar;
+import com.mx.santander.commons.folio.SnowflakeFolioGenerator;
+import com.mx.santander.commons.folio.TraceFolioGenerator;
+import com.mx.santander.commons.folio.UuidFolioGenerator;
 import com.mx.santander.commons.interceptor.CustomClientHttpRequestInterceptor;
 import com.mx.santander.commons.postprocesor.RestTemplateBeanPostProcessor;
+import com.mx.santander.commons.timer.ServiceTimer;
+import com.mx.santander.commons.timer.accesslog.AccessLogWriter;
+import com.mx.santander.commons.timer.endpoint.LatencyEndpoint;
+import com.mx.santander.commons.timer.endpoint.SlowRequestEndpoint;
+import com.mx.santander.commons.timer.histogram.LatencyRegistry;
+import com.mx.santander.commons.timer.resource.ThreadResourceMeter;
+import com.mx.santander.commons.timer.watchdog.SlowRequestWatchdog;
 import com.mx.santander.commons.timer.aspects.TimerAspect;
 
 /**
@@ -63,28 +86,319 @@ public class CommonsAutoConfiguration {
     }
 
     /**
-     * Se incializa {@link DTOAspect} para capturar los request y response de los
-     * servicios
+     * se inicializa {@link AdvicePlanCache} para que los aspectos calculen una sola
+     * vez por metodo las validaciones que aplican
      * 
-     * @return {@link DTOAspect}
+     * @return {@link AdvicePlanCache}
      */
+    @Bean
+    @ConditionalOnMissingBean(value = AdvicePlanCache.class)
+    public AdvicePlanCache advicePlanCache() {
+        return new AdvicePlanCache();
+    }
 
+    /**
+     * Se incializa {@link DTOResponseWrapper} para dar formato a las respuestas de
+     * los servicios
+     * 
+     * @return {@link DTOResponseWrapper}
+     */
     @Bean
     @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.dto", name = "enable", havingValue = "true", matchIfMissing = true)
-    public DTOAspect dtoAspect() {
-        return new DTOAspect();
+    public DTOResponseWrapper dtoResponseWrapper() {
+        return new DTOResponseWrapper();
+    }
+
+    /**
+     * se inicializa {@link EnvelopeHttpMessageConverter} para escribir las
+     * respuestas de exito directo al flujo de salida con el encabezado ya
+     * codificado
+     * 
+     * @return {@link EnvelopeHttpMessageConverter}
+     */
+    @Bean
+    @ConditionalOnWebApplication
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.dto.streaming", name = "enable", havingValue = "true")
+    public EnvelopeHttpMessageConverter envelopeHttpMessageConverter() {
+        return new EnvelopeHttpMessageConverter();
     }
 
     /**
-     * se inicializa {@link TimerAspect} para medir tiempos de respuesta de los
+     * se inicializa {@link ServiceTimer} para medir tiempos de respuesta de los
      * servicios
      * 
-     * @return {@link TimerAspect}
+     * @return {@link ServiceTimer}
      */
     @Bean
     @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.timer", name = "enable", havingValue = "true", matchIfMissing = true)
-    public TimerAspect timerAspect() {
-        return new TimerAspect();
+    public ServiceTimer serviceTimer() {
+        return new ServiceTimer();
+    }
+
+    /**
+     * se inicializa {@link LatencyRegistry} para registrar los histogramas de
+     * latencia por endpoint
+     * 
+     * @return {@link LatencyRegistry}
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.timer", name = "enable", havingValue = "true", matchIfMissing = true)
+    public LatencyRegistry latencyRegistry() {
+        return new LatencyRegistry();
+    }
+
+    /**
+     * se inicializa {@link LatencyEndpoint} para exponer en actuator los
+     * percentiles de latencia por endpoint
+     * 
+     * @return {@link LatencyEndpoint}
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "endpoints.latency")
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.timer", name = "enable", havingValue = "true", matchIfMissing = true)
+    public LatencyEndpoint latencyEndpoint() {
+        return new LatencyEndpoint();
+    }
+
+    /**
+     * se inicializa {@link ThreadResourceMeter} para registrar el tiempo de CPU y
+     * los bytes asignados por peticion junto con su latencia
+     * 
+     * @return {@link ThreadResourceMeter}
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.timer.resources", name = "enable", havingValue = "true")
+    public ThreadResourceMeter threadResourceMeter() {
+        return new ThreadResourceMeter();
+    }
+
+    /**
+     * se inicializa {@link AccessLogWriter} para escribir una bitacora de accesos
+     * muestreada en segundo plano en lugar del log de inicio y fin de cada servicio
+     * 
+     * @return {@link AccessLogWriter}
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.timer.access-log", name = "enable", havingValue = "true")
+    public AccessLogWriter accessLogWriter() {
+        return new AccessLogWriter();
+    }
+
+    /**
+     * se inicializa {@link SlowRequestWatchdog} para muestrear la pila de las
+     * peticiones que exceden el umbral de lentitud
+     * 
+     * @return {@link SlowRequestWatchdog}
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.timer.watchdog", name = "enable", havingValue = "true")
+    public SlowRequestWatchdog slowRequestWatchdog() {
+        return new SlowRequestWatchdog();
+    }
+
+    /**
+     * se inicializa {@link SlowRequestEndpoint} para exponer en actuator los
+     * reportes de peticiones lentas
+     * 
+     * @return {@link SlowRequestEndpoint}
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "endpoints.slowrequests")
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.timer.watchdog", name = "enable", havingValue = "true")
+    public SlowRequestEndpoint slowRequestEndpoint() {
+        return new SlowRequestEndpoint();
+    }
+
+    /**
+     * se inicializa {@link UuidFolioGenerator} para generar los folios de
+     * operacion con UUID, es el generador por default
+     * 
+     * @return {@link FolioGenerator}
+     */
+    @Bean
+    @ConditionalOnMissingBean(value = FolioGenerator.class)
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.folio", name = "generator", havingValue = "uuid", matchIfMissing = true)
+    public FolioGenerator uuidFolioGenerator() {
+        return new UuidFolioGenerator();
+    }
+
+    /**
+     * se inicializa {@link SnowflakeFolioGenerator} para generar los folios de
+     * operacion ordenados por tiempo sin bloqueos
+     * 
+     * @return {@link FolioGenerator}
+     */
+    @Bean
+    @ConditionalOnMissingBean(value = FolioGenerator.class)
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.folio", name = "generator", havingValue = "snowflake")
+    public FolioGenerator snowflakeFolioGenerator() {
+        return new SnowflakeFolioGenerator();
+    }
+
+    /**
+     * se inicializa {@link TraceFolioGenerator} para usar el trace id de sleuth
+     * como folio de operacion
+     * 
+     * @return {@link FolioGenerator}
+     */
+    @Bean
+    @ConditionalOnClass(name = "brave.Tracer")
+    @ConditionalOnMissingBean(value = FolioGenerator.class)
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.folio", name = "generator", havingValue = "trace")
+    public FolioGenerator traceFolioGenerator() {
+        return new TraceFolioGenerator();
+    }
+
+    /**
+     * se inicializa {@link FolioGeneratorRegistrar} para que
+     * {@link com.mx.santander.commons.model.dto.ResponseTOWrapper} use el
+     * generador de folios configurado
+     * 
+     * @return {@link FolioGeneratorRegistrar}
+     */
+    @Bean
+    public FolioGeneratorRegistrar folioGeneratorRegistrar() {
+        return new FolioGeneratorRegistrar();
+    }
+
+    /**
+     * se inicializa {@link EarlyRejectionFilter} para rechazar peticiones con
+     * sesion expirada, canal desconocido o fuera de horario antes de leer el
+     * cuerpo de la peticion
+     * 
+     * @return {@link EarlyRejectionFilter}
+     */
+    @Bean
+    @ConditionalOnWebApplication
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.early-rejection", name = "enable", havingValue = "true")
+    public EarlyRejectionFilter earlyRejectionFilter() {
+        return new EarlyRejectionFilter();
+    }
+
+    /**
+     * se registra {@link EarlyRejectionFilter} despues del filtro de spring session
+     * para que la sesion de la peticion ya este disponible
+     * 
+     * @param filter
+     *            filtro de rechazo temprano
+     * @return {@link FilterRegistrationBean}
+     */
+    @Bean
+    @ConditionalOnWebApplication
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.early-rejection", name = "enable", havingValue = "true")
+    public FilterRegistrationBean earlyRejectionFilterRegistration(EarlyRejectionFilter filter) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(filter);
+        registration.setOrder(EarlyRejectionFilter.DEFAULT_ORDER);
+        return registration;
+    }
+
+    /**
+     * Configuracion por default donde cada funcionalidad se aplica con su propio
+     * aspecto
+     * 
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.execution", name = "mode", havingValue = "aspect", matchIfMissing = true)
+    public static class AspectExecution {
+
+        /**
+         * Se incializa {@link DTOAspect} para capturar los request y response de los
+         * servicios
+         * 
+         * @return {@link DTOAspect}
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.dto", name = "enable", havingValue = "true", matchIfMissing = true)
+        public DTOAspect dtoAspect() {
+            return new DTOAspect();
+        }
+
+        /**
+         * se inicializa {@link TimerAspect} para medir tiempos de respuesta de los
+         * servicios
+         * 
+         * @return {@link TimerAspect}
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.timer", name = "enable", havingValue = "true", matchIfMissing = true)
+        public TimerAspect timerAspect() {
+            return new TimerAspect();
+        }
+    }
+
+    /**
+     * Configuracion donde los aspectos se tejen con AspectJ en compilacion o en
+     * tiempo de carga, se registra como bean la instancia unica que crea AspectJ
+     * para que spring le inyecte sus dependencias y no se crean proxies
+     * 
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.execution", name = "mode", havingValue = "weaving")
+    public static class WeavingExecution {
+
+        /**
+         * Se obtiene {@link DTOAspect} tejido por AspectJ
+         * 
+         * @return {@link DTOAspect}
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.dto", name = "enable", havingValue = "true", matchIfMissing = true)
+        public DTOAspect wovenDtoAspect() {
+            return Aspects.aspectOf(DTOAspect.class);
+        }
+
+        /**
+         * Se obtiene {@link TimerAspect} tejido por AspectJ
+         * 
+         * @return {@link TimerAspect}
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "com.mx.santander.commons.service.timer", name = "enable", havingValue = "true", matchIfMissing = true)
+        public TimerAspect wovenTimerAspect() {
+            return Aspects.aspectOf(TimerAspect.class);
+        }
+    }
+
+    /**
+     * Configuracion donde todas las funcionalidades se aplican en un solo
+     * {@link CommonsMethodInterceptor} en lugar de un proxy por aspecto
+     * 
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "com.mx.santander.commons.execution", name = "mode", havingValue = "interceptor")
+    public static class InterceptorExecution {
+
+        /**
+         * se inicializa {@link CommonsMethodInterceptor}
+         * 
+         * @return {@link CommonsMethodInterceptor}
+         */
+        @Bean
+        public CommonsMethodInterceptor commonsMethodInterceptor() {
+            return new CommonsMethodInterceptor();
+        }
+
+        /**
+         * se registra {@link CommonsMethodInterceptor} sobre los metodos anotados con
+         * RequestMapping con la misma precedencia que el aspecto mas externo
+         * 
+         * @param interceptor
+         *            interceptor de commons
+         * @return {@link Advisor}
+         */
+        @Bean
+        public Advisor commonsMethodAdvisor(CommonsMethodInterceptor interceptor) {
+            DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                    new CommonsMethodInterceptor.RequestMappingPointcut(), interceptor);
+            advisor.setOrder(Integer.MIN_VALUE + 1);
+            return advisor;
+        }
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.mx.santander.commons.autoconfigurations;
 
+import org.aspectj.lang.Aspects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -13,6 +14,7 @@ import org.springframework.session.web.http.HeaderHttpSessionStrategy;
 import org.springframework.session.web.http.HttpSessionStrategy;
 
 import com.mx.santander.commons.constant.ConstCommons;
+import com.mx.santander.commons.session.security.SessionGuard;
 import com.mx.santander.commons.session.security.aspec.SesionAspect;
 import com.mx.santander.commons.session.security.aspec.SesionRoleAspect;
 
@@ -75,12 +77,24 @@ public class SessionAutoConfiguration {
             return new JedisConnectionFactory();
         }
 
+        /**
+         * Se incializa {@link SessionGuard} con las validaciones de sesion y roles que
+         * usan los aspectos o el interceptor de commons
+         * 
+         * @return {@link SessionGuard}
+         */
+        @Bean
+        public SessionGuard sessionGuard() {
+            return new SessionGuard();
+        }
+
         /**
          * Se incializa {@link SesionAspect}
          * 
          * @return {@link SesionAspect}
          */
         @Bean
+        @ConditionalOnProperty(prefix = "com.mx.santander.commons.execution", name = "mode", havingValue = "aspect", matchIfMissing = true)
         public SesionAspect sessionAspec() {
             return new SesionAspect();
         }
@@ -91,9 +105,32 @@ public class SessionAutoConfiguration {
          * @return {@link SesionRoleAspect}
          */
         @Bean
+        @ConditionalOnProperty(prefix = "com.mx.santander.commons.execution", name = "mode", havingValue = "aspect", matchIfMissing = true)
         public SesionRoleAspect sessionRoleAspec() {
             return new SesionRoleAspect();
         }
+
+        /**
+         * Se obtiene {@link SesionAspect} tejido por AspectJ
+         * 
+         * @return {@link SesionAspect}
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "com.mx.santander.commons.execution", name = "mode", havingValue = "weaving")
+        public SesionAspect wovenSessionAspect() {
+            return Aspects.aspectOf(SesionAspect.class);
+        }
+
+        /**
+         * Se obtiene {@link SesionRoleAspect} tejido por AspectJ
+         * 
+         * @return {@link SesionRoleAspect}
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "com.mx.santander.commons.execution", name = "mode", havingValue = "weaving")
+        public SesionRoleAspect wovenSessionRoleAspect() {
+            return Aspects.aspectOf(SesionRoleAspect.class);
+        }
     }
 
 }
@@ -0,0 +1,68 @@
+package com.mx.santander.commons.channel.bulkhead;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compartimento de concurrencia de un canal, lleva la cuenta de peticiones en
+ * ejecucion del canal y rechaza de inmediato las que exceden su limite en lugar
+ * de dejarlas esperar, de modo que un canal lento no ocupe todos los hilos del
+ * servidor, se conserva entre cargas del canal para no perder las peticiones en
+ * curso
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class ChannelBulkhead {
+    /**
+     * peticiones en ejecucion
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * peticiones rechazadas por canal saturado
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Intenta ocupar un lugar en el compartimento, si se ocupa se debe liberar con
+     * {@link #release()} al terminar la peticion
+     *
+     * @param limit
+     *            maximo de peticiones en ejecucion, menor a 1 indica sin limite
+     * @return true si se ocupo el lugar
+     */
+    public boolean tryAcquire(int limit) {
+        int current = inFlight.incrementAndGet();
+        if (limit > 0 && current > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Libera el lugar ocupado por una peticion
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * peticiones en ejecucion
+     *
+     * @return numero de peticiones
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * peticiones rechazadas por canal saturado
+     *
+     * @return numero de rechazos
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
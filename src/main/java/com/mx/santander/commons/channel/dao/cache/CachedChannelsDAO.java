@@ -0,0 +1,281 @@
+package com.mx.santander.commons.channel.dao.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.mx.santander.commons.channel.dao.db.IChannelsDAO;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+
+/**
+ * Dao de canales con cache en dos niveles, el primer nivel es una copia local
+ * en memoria con vigencia corta y el segundo nivel es redis compartido entre
+ * todas las instancias, mongo solo se consulta cuando ambos niveles no tienen
+ * los canales o se desaloja la cache, si redis no esta disponible se consulta
+ * mongo directamente, si no existe la conexion a redis solo se usa la copia
+ * local
+ * 
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class CachedChannelsDAO implements IChannelsDAO {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachedChannelsDAO.class);
+    /**
+     * dao de canales en mongo
+     */
+    @Autowired
+    @Qualifier("channelsDAO")
+    private IChannelsDAO channelsDao;
+    /**
+     * fabrica de conexiones redis, se resuelve al iniciar para no depender del
+     * orden en que se procesan las configuraciones
+     */
+    @Autowired
+    private ObjectProvider<RedisConnectionFactory> redisConnectionFactory;
+    /**
+     * llave de los canales en redis
+     */
+    @Value("${com.mx.santander.commons.channel.access.cache.key:gopay:channels:all}")
+    private String key;
+    /**
+     * vigencia en milisegundos de los canales en redis
+     */
+    @Value("${com.mx.santander.commons.channel.access.cache.ttl:300000}")
+    private long ttl;
+    /**
+     * vigencia en milisegundos de la copia local de los canales
+     */
+    @Value("${com.mx.santander.commons.channel.access.cache.local-ttl:30000}")
+    private long localTtl;
+    /**
+     * cliente redis de canales, null si no existe la conexion a redis
+     */
+    private RedisTemplate<String, Object> redisTemplate;
+    /**
+     * copia local de los canales
+     */
+    private volatile NearCache near;
+    /**
+     * candado para que una sola peticion por instancia consulte redis o mongo
+     */
+    private final Object loadLock = new Object();
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     * 
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public CachedChannelsDAO() {
+        LOGGER.info("Inicia cache de canales en redis");
+    }
+
+    /**
+     * Se inicializa el cliente redis con llaves de texto y valores serializados
+     */
+    @PostConstruct
+    public void init() {
+        RedisConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+        if (Objects.isNull(connectionFactory)) {
+            LOGGER.error("Se habilito la cache de canales pero no existe conexion a redis, "
+                    + "habilite com.mx.santander.commons.session.enable o defina un RedisConnectionFactory, "
+                    + "los canales se consultan en mongo con la copia local");
+            return;
+        }
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+    }
+
+    /**
+     * Busca todos los canales directamente en mongo, este metodo no se usa para la
+     * validacion de acceso por lo que no pasa por la cache
+     */
+    @Override
+    public List<ChannelsEntity> findAll() {
+        return channelsDao.findAll();
+    }
+
+    /**
+     * Busca el canal directamente en mongo usando el indice de canal
+     */
+    @Override
+    public ChannelsEntity findByCanal(String canal) {
+        return channelsDao.findByCanal(canal);
+    }
+
+    /**
+     * Busca los canales modificados directamente en mongo usando el indice de
+     * fecha de modificacion, si hay cambios se desalojan la copia local y redis
+     * para que la siguiente carga completa no publique de nuevo la version
+     * anterior de los canales ni regrese la fecha de modificacion de referencia
+     */
+    @Override
+    public List<ChannelsEntity> findModifiedSince(Date since) {
+        List<ChannelsEntity> modified = channelsDao.findModifiedSince(since);
+        if (Objects.nonNull(modified) && !modified.isEmpty()) {
+            LOGGER.debug("Existen {} canales modificados, se desaloja la cache de canales", modified.size());
+            evict();
+        }
+        return modified;
+    }
+
+    /**
+     * Crea los indices de la colecion en mongo
+     */
+    @Override
+    public void ensureIndexes() {
+        channelsDao.ensureIndexes();
+    }
+
+    /**
+     * Busca los canales en la copia local, si no estan vigentes en redis y si
+     * tampoco estan en redis en mongo
+     */
+    @Override
+    public List<ChannelsEntity> findAllForSnapshot() {
+        NearCache current = near;
+        if (Objects.nonNull(current) && current.isValid(System.currentTimeMillis())) {
+            return current.channels;
+        }
+        synchronized (loadLock) {
+            current = near;
+            long now = System.currentTimeMillis();
+            if (Objects.nonNull(current) && current.isValid(now)) {
+                return current.channels;
+            }
+            List<ChannelsEntity> channels = readRedis();
+            if (Objects.isNull(channels)) {
+                channels = channelsDao.findAllForSnapshot();
+                writeRedis(channels);
+            }
+            List<ChannelsEntity> copy = Objects.isNull(channels) ? Collections.<ChannelsEntity>emptyList()
+                    : Collections.unmodifiableList(new ArrayList<>(channels));
+            near = new NearCache(copy, now + localTtl);
+            return copy;
+        }
+    }
+
+    /**
+     * Desaloja los canales de la copia local y de redis para que la siguiente
+     * consulta se haga a mongo
+     */
+    public void evict() {
+        near = null;
+        if (Objects.isNull(redisTemplate)) {
+            return;
+        }
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            LOGGER.warn("No fue posible desalojar los canales de redis", e);
+        }
+    }
+
+    /**
+     * Desaloja solo la copia local de los canales para que la siguiente consulta
+     * se haga a redis
+     */
+    public void evictLocal() {
+        near = null;
+    }
+
+    /**
+     * Consulta los canales en redis
+     * 
+     * @return canales o null si no existen o redis no esta disponible
+     */
+    @SuppressWarnings("unchecked")
+    private List<ChannelsEntity> readRedis() {
+        if (Objects.isNull(redisTemplate)) {
+            return null;
+        }
+        try {
+            Object value = redisTemplate.opsForValue().get(key);
+            if (value instanceof List) {
+                LOGGER.debug("Se obtienen los canales de redis");
+                return (List<ChannelsEntity>) value;
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("No fue posible consultar los canales en redis, se consulta mongo", e);
+        }
+        return null;
+    }
+
+    /**
+     * Guarda los canales en redis con su vigencia
+     * 
+     * @param channels
+     *            canales
+     */
+    private void writeRedis(List<ChannelsEntity> channels) {
+        if (Objects.isNull(channels) || Objects.isNull(redisTemplate)) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key, new ArrayList<>(channels), ttl, TimeUnit.MILLISECONDS);
+        } catch (DataAccessException e) {
+            LOGGER.warn("No fue posible guardar los canales en redis", e);
+        }
+    }
+
+    /**
+     * Copia local inmutable de los canales con su hora de vencimiento
+     */
+    private static final class NearCache {
+        /**
+         * canales
+         */
+        private final List<ChannelsEntity> channels;
+        /**
+         * hora de vencimiento en milisegundos
+         */
+        private final long expiresAt;
+
+        /**
+         * Constructor de la copia local
+         * 
+         * @param channels
+         *            canales
+         * @param expiresAt
+         *            hora de vencimiento
+         */
+        private NearCache(List<ChannelsEntity> channels, long expiresAt) {
+            this.channels = channels;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * indica si la copia sigue vigente
+         * 
+         * @param now
+         *            hora actual
+         * @return true si esta vigente
+         */
+        private boolean isValid(long now) {
+            return now < expiresAt;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.mx.santander.commons.channel.dao.db;
+
+import java.util.Objects;
+
+import com.mx.santander.commons.channel.bulkhead.ChannelBulkhead;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+import com.mx.santander.commons.channel.ratelimit.ChannelRateLimiter;
+import com.mx.santander.commons.channel.schedule.ChannelServiceState;
+import com.mx.santander.commons.channel.schedule.ServiceSchedule;
+
+/**
+ * Canal indexado en memoria junto con la informacion precalculada al momento de
+ * su carga, como su horario de servicio compilado, y su estado en tiempo de
+ * ejecucion que se conserva entre cargas del mismo canal
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class ChannelEntry {
+    /**
+     * canal
+     */
+    private final ChannelsEntity entity;
+    /**
+     * horario de servicio compilado
+     */
+    private final ServiceSchedule schedule;
+    /**
+     * estado del canal en su horario de servicio
+     */
+    private final ChannelServiceState state;
+    /**
+     * limite de peticiones por segundo del canal
+     */
+    private final ChannelRateLimiter rateLimiter;
+    /**
+     * compartimento de concurrencia del canal
+     */
+    private final ChannelBulkhead bulkhead;
+
+    /**
+     * Constructor del canal indexado, se compila su horario de servicio y se
+     * conserva el estado, el limite de peticiones y el compartimento de
+     * concurrencia de la carga anterior del mismo canal si existe
+     *
+     * @param entity
+     *            {@link ChannelsEntity}
+     * @param previous
+     *            canal de la carga anterior, puede ser null
+     */
+    public ChannelEntry(ChannelsEntity entity, ChannelEntry previous) {
+        this.entity = entity;
+        this.schedule = ServiceSchedule.compile(entity.getHorarioServicio());
+        this.state = Objects.nonNull(previous) ? previous.state : new ChannelServiceState();
+        this.rateLimiter = ChannelRateLimiter.of(entity.getTasaMaxima(), entity.getRafagaMaxima(),
+                Objects.nonNull(previous) ? previous.rateLimiter : null);
+        this.bulkhead = Objects.nonNull(previous) ? previous.bulkhead : new ChannelBulkhead();
+    }
+
+    /**
+     * canal
+     *
+     * @return {@link ChannelsEntity}
+     */
+    public ChannelsEntity getEntity() {
+        return entity;
+    }
+
+    /**
+     * horario de servicio compilado
+     *
+     * @return {@link ServiceSchedule}
+     */
+    public ServiceSchedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * estado del canal en su horario de servicio
+     *
+     * @return {@link ChannelServiceState}
+     */
+    public ChannelServiceState getState() {
+        return state;
+    }
+
+    /**
+     * limite de peticiones por segundo del canal
+     *
+     * @return {@link ChannelRateLimiter}
+     */
+    public ChannelRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * compartimento de concurrencia del canal
+     *
+     * @return {@link ChannelBulkhead}
+     */
+    public ChannelBulkhead getBulkhead() {
+        return bulkhead;
+    }
+}
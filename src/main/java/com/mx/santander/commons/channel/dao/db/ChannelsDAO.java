@@ -1,11 +1,17 @@
 package com.mx.santander.commons.channel.dao.db;
 
+import java.util.Date;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
 import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
@@ -24,6 +30,14 @@ public class ChannelsDAO implements IChannelsDAO {
      * logger de la clase
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(ChannelsDAO.class);
+    /**
+     * campo clave del canal
+     */
+    private static final String CANAL = "canal";
+    /**
+     * campo fecha de modificacion del canal
+     */
+    private static final String FECHA_MODIFICACION = "fechaModificacion";
     /**
      * conexion con BD mongo
      */
@@ -40,4 +54,58 @@ public class ChannelsDAO implements IChannelsDAO {
         return mongotemplate.findAll(ChannelsEntity.class);
     }
 
+    /**
+     * metodo para consultar un canal por su clave
+     */
+    @Override
+    public ChannelsEntity findByCanal(String canal) {
+        LOGGER.debug("Se accede a BD por el canal:{}", canal);
+        return mongotemplate.findOne(projected(Query.query(Criteria.where(CANAL).is(canal))), ChannelsEntity.class);
+    }
+
+    /**
+     * metodo para consultar todos los canales solo con los campos necesarios para
+     * validar su acceso
+     */
+    @Override
+    public List<ChannelsEntity> findAllForSnapshot() {
+        LOGGER.info("Se accede a BD por los canales");
+        return mongotemplate.find(projected(new Query()), ChannelsEntity.class);
+    }
+
+    /**
+     * metodo para consultar los canales modificados despues de la fecha indicada
+     */
+    @Override
+    public List<ChannelsEntity> findModifiedSince(Date since) {
+        LOGGER.debug("Se accede a BD por los canales modificados despues de:{}", since);
+        return mongotemplate.find(projected(Query.query(Criteria.where(FECHA_MODIFICACION).gt(since))),
+                ChannelsEntity.class);
+    }
+
+    /**
+     * crea los indices por clave de canal y por fecha de modificacion
+     */
+    @Override
+    public void ensureIndexes() {
+        IndexOperations indexOps = mongotemplate.indexOps(ChannelsEntity.class);
+        indexOps.ensureIndex(new Index().on(CANAL, Direction.ASC).named("canal_1"));
+        indexOps.ensureIndex(new Index().on(FECHA_MODIFICACION, Direction.ASC).named("fechaModificacion_1"));
+        LOGGER.info("Se aseguran los indices de la colecion de canales");
+    }
+
+    /**
+     * agrega a la consulta la proyeccion de los campos necesarios para validar el
+     * acceso del canal
+     * 
+     * @param query
+     *            consulta
+     * @return consulta con proyeccion
+     */
+    private static Query projected(Query query) {
+        query.fields().include(CANAL).include("activo").include("horarioServicio").include("tasaMaxima")
+                .include("rafagaMaxima").include("maxConcurrencia").include(FECHA_MODIFICACION);
+        return query;
+    }
+
 }
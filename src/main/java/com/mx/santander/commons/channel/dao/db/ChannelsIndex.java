@@ -0,0 +1,91 @@
+package com.mx.santander.commons.channel.dao.db;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+
+/**
+ * Indice hash inmutable de canales por clave de canal, se construye una sola
+ * vez por cada carga de canales para que la busqueda por peticion sea en
+ * tiempo constante sin recorrer la lista de canales, cada canal se guarda como
+ * {@link ChannelEntry} con su horario de servicio ya compilado
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class ChannelsIndex {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelsIndex.class);
+    /**
+     * canales por clave
+     */
+    private final Map<String, ChannelEntry> byCanal;
+
+    /**
+     * Construye el indice, si existen canales repetidos se conserva el primero
+     * como lo hacia la busqueda lineal, los canales que ya existian en el indice
+     * anterior conservan su estado
+     *
+     * @param channels
+     *            canales a indexar
+     * @param previous
+     *            indice anterior, puede ser null
+     */
+    public ChannelsIndex(Collection<ChannelsEntity> channels, ChannelsIndex previous) {
+        Map<String, ChannelEntry> index = new HashMap<>((int) (channels.size() / 0.75f) + 1);
+        for (ChannelsEntity channel : channels) {
+            if (Objects.isNull(channel) || Objects.isNull(channel.getCanal())) {
+                LOGGER.warn("Se omite un canal sin clave en el indice de canales");
+                continue;
+            }
+            if (index.containsKey(channel.getCanal())) {
+                LOGGER.warn("El canal:{} esta repetido, se conserva el primer registro", channel.getCanal());
+                continue;
+            }
+            ChannelEntry before = Objects.nonNull(previous) ? previous.get(channel.getCanal()) : null;
+            index.put(channel.getCanal(), new ChannelEntry(channel, before));
+        }
+        this.byCanal = index;
+    }
+
+    /**
+     * busca el canal por su clave
+     *
+     * @param canal
+     *            clave del canal
+     * @return {@link ChannelEntry} o null si no existe
+     */
+    public ChannelEntry get(String canal) {
+        if (Objects.isNull(canal)) {
+            return null;
+        }
+        return byCanal.get(canal);
+    }
+
+    /**
+     * canales indexados
+     *
+     * @return coleccion no modificable de {@link ChannelEntry}
+     */
+    public Collection<ChannelEntry> entries() {
+        return Collections.unmodifiableCollection(byCanal.values());
+    }
+
+    /**
+     * numero de canales indexados
+     *
+     * @return numero de canales
+     */
+    public int size() {
+        return byCanal.size();
+    }
+}
@@ -1,5 +1,6 @@
 package com.mx.santander.commons.channel.dao.db;
 
+import java.util.Date;
 import java.util.List;
 
 import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
@@ -19,4 +20,36 @@ public interface IChannelsDAO {
      */
     List<ChannelsEntity> findAll();
 
+    /**
+     * busca un canal por su clave usando el indice de canal
+     * 
+     * @param canal
+     *            clave del canal
+     * @return {@link ChannelsEntity} o null si no existe
+     */
+    ChannelsEntity findByCanal(String canal);
+
+    /**
+     * busca todos los canales trayendo solo los campos necesarios para validar el
+     * acceso
+     * 
+     * @return {@link ChannelsEntity}
+     */
+    List<ChannelsEntity> findAllForSnapshot();
+
+    /**
+     * busca los canales modificados despues de la fecha indicada trayendo solo los
+     * campos necesarios para validar el acceso
+     * 
+     * @param since
+     *            fecha de modificacion a partir de la cual se buscan los canales
+     * @return {@link ChannelsEntity}
+     */
+    List<ChannelsEntity> findModifiedSince(Date since);
+
+    /**
+     * crea los indices de la colecion si no existen
+     */
+    void ensureIndexes();
+
 }
\ No newline at end of file
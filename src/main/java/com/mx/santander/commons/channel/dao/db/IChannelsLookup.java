@@ -0,0 +1,22 @@
+package com.mx.santander.commons.channel.dao.db;
+
+/**
+ * Consulta en memoria de canales por el valor del header x-channel, las
+ * implementaciones deben resolver la busqueda en tiempo constante y sin generar
+ * objetos por peticion
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public interface IChannelsLookup {
+
+    /**
+     * busca un canal por su clave
+     *
+     * @param canal
+     *            clave del canal informada en el header x-channel
+     * @return {@link ChannelEntry} o null si el canal no existe
+     */
+    ChannelEntry findByCanal(String canal);
+
+}
@@ -0,0 +1,273 @@
+package com.mx.santander.commons.channel.dao.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.yaml.snakeyaml.Yaml;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.mx.santander.commons.channel.dao.db.IChannelsDAO;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+import com.mx.santander.commons.utils.JacksonUtils;
+
+/**
+ * Dao de canales que lee los canales de un archivo local JSON o YAML en lugar
+ * de mongo, permite ejecutar la validacion de canales en pruebas de carga y en
+ * despliegues sin BD, los canales se leen una sola vez y se vuelven a leer solo
+ * cuando cambia la fecha de modificacion del archivo, opcionalmente el archivo
+ * se convierte directo mapeado en memoria sin copiarlo al heap
+ * 
+ * <pre>
+ * [{"canal":"SMOV","activo":true,"horarioServicio":{"dias":["Lun","Mar"],"horaInicio":"08:00:00","horaFin":"20:00:00"}}]
+ * </pre>
+ * 
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelsFileDAO implements IChannelsDAO {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelsFileDAO.class);
+    /**
+     * tipo de la lista de canales
+     */
+    private static final TypeReference<List<ChannelsEntity>> CHANNELS_TYPE = new TypeReference<List<ChannelsEntity>>() {
+    };
+    /**
+     * lector que ignora campos desconocidos
+     */
+    private static final ObjectReader READER = JacksonUtils.JACKSON.readerFor(CHANNELS_TYPE)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    /**
+     * archivo de canales
+     */
+    private final Resource resource;
+    /**
+     * indica si el archivo se lee mapeado en memoria
+     */
+    private final boolean mmap;
+    /**
+     * tiempo minimo en milisegundos entre revisiones de la fecha de modificacion
+     * del archivo, 0 desactiva la recarga
+     */
+    private final long reloadInterval;
+    /**
+     * canales leidos del archivo
+     */
+    private volatile Loaded loaded;
+
+    /**
+     * Constructor del dao
+     * 
+     * @param location
+     *            ubicacion del archivo, por ejemplo classpath:channels.json o
+     *            file:/opt/gopay/channels.yml
+     * @param mmap
+     *            true para leer el archivo mapeado en memoria
+     * @param reloadInterval
+     *            tiempo minimo en milisegundos entre revisiones del archivo, 0
+     *            desactiva la recarga
+     */
+    public ChannelsFileDAO(String location, boolean mmap, long reloadInterval) {
+        this.resource = new DefaultResourceLoader().getResource(location);
+        this.mmap = mmap;
+        this.reloadInterval = reloadInterval;
+        LOGGER.info("Inicia dao de canales en archivo:{}", location);
+    }
+
+    /**
+     * metodo para consultar todos los canales del archivo
+     */
+    @Override
+    public List<ChannelsEntity> findAll() {
+        return current().channels;
+    }
+
+    /**
+     * metodo para consultar un canal del archivo por su clave
+     */
+    @Override
+    public ChannelsEntity findByCanal(String canal) {
+        return current().byCanal.get(canal);
+    }
+
+    /**
+     * el archivo ya contiene solo los campos necesarios, regresa todos los canales
+     */
+    @Override
+    public List<ChannelsEntity> findAllForSnapshot() {
+        return current().channels;
+    }
+
+    /**
+     * metodo para consultar los canales del archivo modificados despues de la
+     * fecha indicada, el registro de canales no lo usa con este dao porque los
+     * cambios sin fechaModificacion y las bajas no se detectan por fecha, en su
+     * lugar toma todos los canales cuando cambia el archivo
+     */
+    @Override
+    public List<ChannelsEntity> findModifiedSince(Date since) {
+        return current().channels.stream()
+                .filter(channel -> Objects.nonNull(channel.getFechaModificacion())
+                        && channel.getFechaModificacion().after(since))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * el archivo no tiene indices
+     */
+    @Override
+    public void ensureIndexes() {
+        LOGGER.debug("El dao de canales en archivo no requiere indices");
+    }
+
+    /**
+     * Regresa los canales leidos, si el archivo cambio desde la ultima lectura se
+     * vuelve a leer
+     * 
+     * @return canales leidos
+     */
+    private synchronized Loaded current() {
+        Loaded before = loaded;
+        long now = System.currentTimeMillis();
+        if (Objects.nonNull(before) && (reloadInterval <= 0 || now - before.checkedAt < reloadInterval)) {
+            return before;
+        }
+        long lastModified = lastModified();
+        if (Objects.nonNull(before) && lastModified == before.lastModified) {
+            before.checkedAt = now;
+            return before;
+        }
+        try {
+            List<ChannelsEntity> channels = read();
+            loaded = new Loaded(channels, lastModified, now);
+            LOGGER.info("Se leen {} canales del archivo:{}", channels.size(), resource);
+        } catch (IOException | RuntimeException e) {
+            if (Objects.isNull(before)) {
+                throw new IllegalStateException("No fue posible leer el archivo de canales:" + resource, e);
+            }
+            LOGGER.error("No fue posible leer el archivo de canales:{}, se conservan los canales anteriores",
+                    resource, e);
+            before.checkedAt = now;
+        }
+        return loaded;
+    }
+
+    /**
+     * Lee y convierte los canales del archivo, si se habilito el mapeo en memoria
+     * y el archivo esta en disco se convierte directo del archivo mapeado sin
+     * copiarlo al heap, en otro caso se convierte del flujo del archivo, funciona
+     * tambien con archivos dentro del jar
+     * 
+     * @return canales
+     * @throws IOException
+     *             si no se puede leer el archivo
+     */
+    private List<ChannelsEntity> read() throws IOException {
+        if (mmap && resource.isFile()) {
+            try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return parse(new ByteBufferBackedInputStream(buffer));
+            }
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return parse(in);
+        }
+    }
+
+    /**
+     * Convierte los canales del contenido del archivo JSON o YAML segun su
+     * extension
+     * 
+     * @param in
+     *            contenido del archivo
+     * @return canales
+     * @throws IOException
+     *             si el contenido no es valido
+     */
+    private List<ChannelsEntity> parse(InputStream in) throws IOException {
+        String name = Objects.toString(resource.getFilename(), "").toLowerCase();
+        List<ChannelsEntity> channels;
+        if (name.endsWith(".yml") || name.endsWith(".yaml")) {
+            Object yaml = new Yaml().load(in);
+            channels = JacksonUtils.JACKSON.convertValue(yaml, CHANNELS_TYPE);
+        } else {
+            channels = READER.readValue(in);
+        }
+        return Objects.isNull(channels) ? Collections.<ChannelsEntity>emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(channels));
+    }
+
+    /**
+     * fecha de modificacion del archivo
+     * 
+     * @return milisegundos, 0 si no se puede obtener
+     */
+    private long lastModified() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Canales leidos del archivo con la fecha de modificacion del archivo
+     */
+    private static final class Loaded {
+        /**
+         * canales
+         */
+        private final List<ChannelsEntity> channels;
+        /**
+         * canales por clave
+         */
+        private final Map<String, ChannelsEntity> byCanal;
+        /**
+         * fecha de modificacion del archivo leido
+         */
+        private final long lastModified;
+        /**
+         * hora de la ultima revision del archivo
+         */
+        private long checkedAt;
+
+        /**
+         * Constructor de los canales leidos
+         * 
+         * @param channels
+         *            canales
+         * @param lastModified
+         *            fecha de modificacion del archivo
+         * @param checkedAt
+         *            hora de la revision
+         */
+        private Loaded(List<ChannelsEntity> channels, long lastModified, long checkedAt) {
+            this.channels = channels;
+            this.byCanal = new LinkedHashMap<>();
+            channels.stream().filter(channel -> Objects.nonNull(channel.getCanal()))
+                    .forEach(channel -> byCanal.putIfAbsent(channel.getCanal(), channel));
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
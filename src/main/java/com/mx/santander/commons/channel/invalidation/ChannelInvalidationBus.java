@@ -0,0 +1,260 @@
+package com.mx.santander.commons.channel.invalidation;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.mx.santander.commons.channel.dao.cache.CachedChannelsDAO;
+import com.mx.santander.commons.channel.registry.ChannelRegistry;
+import com.mx.santander.commons.channel.registry.ChannelsChangedEvent;
+
+/**
+ * Invalidacion de canales en todas las instancias a traves de redis pub/sub,
+ * cuando una instancia detecta un cambio en un canal o se invoca
+ * {@link #publish(String)} por una accion administrativa a traves de
+ * {@link ChannelInvalidationEndpoint} se notifica a todas las instancias y cada
+ * una recarga solo el canal afectado, el mensaje tiene el formato
+ * canal|epochMillis|origen y con la hora de envio se mide el retraso de
+ * propagacion, un cambio hecho directo en mongo solo se detecta en la
+ * siguiente actualizacion periodica y solo si se actualiza su
+ * fechaModificacion, para que se refleje en menos de un segundo se debe invocar
+ * el endpoint despues del cambio
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelInvalidationBus implements MessageListener {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelInvalidationBus.class);
+    /**
+     * separador de los campos del mensaje
+     */
+    private static final char SEPARATOR = '|';
+    /**
+     * registro en memoria de canales
+     */
+    @Autowired
+    private ChannelRegistry channelRegistry;
+    /**
+     * fabrica de conexiones redis, se resuelve al iniciar para no depender del
+     * orden en que se procesan las configuraciones
+     */
+    @Autowired
+    private ObjectProvider<RedisConnectionFactory> redisConnectionFactory;
+    /**
+     * cache de canales en redis, solo existe si se habilito
+     */
+    @Autowired(required = false)
+    private CachedChannelsDAO cachedChannelsDao;
+    /**
+     * canal de redis por el que se publican las invalidaciones
+     */
+    @Value("${com.mx.santander.commons.channel.access.invalidation.topic:gopay:channels:invalidation}")
+    private String topic;
+    /**
+     * identificador de esta instancia
+     */
+    private final String origin = ManagementFactory.getRuntimeMXBean().getName();
+    /**
+     * cliente redis para publicar, null si no existe la conexion a redis
+     */
+    private StringRedisTemplate redisTemplate;
+    /**
+     * contenedor de la suscripcion
+     */
+    private RedisMessageListenerContainer container;
+    /**
+     * invalidaciones publicadas
+     */
+    private final LongAdder published = new LongAdder();
+    /**
+     * invalidaciones recibidas de otras instancias
+     */
+    private final LongAdder received = new LongAdder();
+    /**
+     * retraso de propagacion en milisegundos de la ultima invalidacion recibida
+     */
+    private final AtomicLong lastLag = new AtomicLong();
+    /**
+     * retraso de propagacion maximo en milisegundos
+     */
+    private final AtomicLong maxLag = new AtomicLong();
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     * 
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public ChannelInvalidationBus() {
+        LOGGER.info("Inicia invalidacion de canales por redis pub/sub");
+    }
+
+    /**
+     * Se suscribe al canal de invalidaciones
+     */
+    @PostConstruct
+    public void init() {
+        RedisConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+        if (Objects.isNull(connectionFactory)) {
+            LOGGER.error("Se habilito la invalidacion de canales pero no existe conexion a redis, "
+                    + "habilite com.mx.santander.commons.session.enable o defina un RedisConnectionFactory, "
+                    + "los cambios de canales solo se reflejan en esta instancia");
+            return;
+        }
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(topic));
+        container.afterPropertiesSet();
+        container.start();
+        LOGGER.info("Se suscribe a las invalidaciones de canales en:{} origen:{}", topic, origin);
+    }
+
+    /**
+     * Cancela la suscripcion
+     */
+    @PreDestroy
+    public void destroy() throws Exception {
+        if (Objects.nonNull(container)) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * Notifica a todas las instancias que el canal cambio, se desaloja la cache de
+     * redis y se recarga el canal en esta instancia
+     * 
+     * @param canal
+     *            clave del canal
+     */
+    public void publish(String canal) {
+        if (Objects.nonNull(cachedChannelsDao)) {
+            cachedChannelsDao.evict();
+        }
+        channelRegistry.reloadChannel(canal);
+        send(canal);
+    }
+
+    /**
+     * Notifica a las demas instancias los canales que cambiaron detectados en una
+     * carga incremental
+     * 
+     * @param event
+     *            {@link ChannelsChangedEvent}
+     */
+    @EventListener
+    public void onChannelsChanged(ChannelsChangedEvent event) {
+        if (Objects.nonNull(cachedChannelsDao)) {
+            cachedChannelsDao.evict();
+        }
+        event.getCanales().forEach(this::send);
+    }
+
+    /**
+     * Recibe la invalidacion de otra instancia y recarga solo el canal afectado
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int last = body.lastIndexOf(SEPARATOR);
+        int middle = last > 0 ? body.lastIndexOf(SEPARATOR, last - 1) : -1;
+        if (middle <= 0) {
+            LOGGER.warn("Se descarta la invalidacion de canal con formato invalido:{}", body);
+            return;
+        }
+        if (origin.equals(body.substring(last + 1))) {
+            return;
+        }
+        String canal = body.substring(0, middle);
+        try {
+            long lag = Math.max(System.currentTimeMillis() - Long.parseLong(body.substring(middle + 1, last)), 0L);
+            lastLag.set(lag);
+            maxLag.accumulateAndGet(lag, Math::max);
+            LOGGER.debug("Se recibe la invalidacion del canal:{} con retraso de {} ms", canal, lag);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("La invalidacion del canal:{} no tiene una hora valida", canal);
+        }
+        received.increment();
+        if (Objects.nonNull(cachedChannelsDao)) {
+            cachedChannelsDao.evictLocal();
+        }
+        channelRegistry.reloadChannel(canal);
+    }
+
+    /**
+     * Publica el mensaje de invalidacion del canal
+     * 
+     * @param canal
+     *            clave del canal
+     */
+    private void send(String canal) {
+        if (Objects.isNull(redisTemplate)) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(topic,
+                    canal + SEPARATOR + System.currentTimeMillis() + SEPARATOR + origin);
+            published.increment();
+        } catch (DataAccessException e) {
+            LOGGER.warn("No fue posible publicar la invalidacion del canal:{}", canal, e);
+        }
+    }
+
+    /**
+     * invalidaciones publicadas
+     * 
+     * @return numero de invalidaciones
+     */
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * invalidaciones recibidas de otras instancias
+     * 
+     * @return numero de invalidaciones
+     */
+    public long getReceived() {
+        return received.sum();
+    }
+
+    /**
+     * retraso de propagacion de la ultima invalidacion recibida
+     * 
+     * @return milisegundos
+     */
+    public long getLastLag() {
+        return lastLag.get();
+    }
+
+    /**
+     * retraso de propagacion maximo
+     * 
+     * @return milisegundos
+     */
+    public long getMaxLag() {
+        return maxLag.get();
+    }
+}
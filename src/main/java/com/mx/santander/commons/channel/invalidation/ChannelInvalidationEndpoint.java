@@ -0,0 +1,64 @@
+package com.mx.santander.commons.channel.invalidation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.mvc.AbstractMvcEndpoint;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Endpoint de actuator para que un operador invalide un canal en todas las
+ * instancias despues de modificarlo en mongo, por ejemplo al desactivarlo, se
+ * invoca con POST /channels/invalidate/{canal}, la instancia que lo recibe
+ * recarga el canal y publica la invalidacion por redis para que las demas lo
+ * recarguen en menos de un segundo, es sensible por lo que requiere la
+ * seguridad de actuator
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelInvalidationEndpoint extends AbstractMvcEndpoint {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelInvalidationEndpoint.class);
+    /**
+     * invalidacion de canales por redis
+     */
+    @Autowired
+    private ChannelInvalidationBus invalidationBus;
+
+    /**
+     * Constructor del endpoint en /channels/invalidate
+     */
+    public ChannelInvalidationEndpoint() {
+        super("/channels/invalidate", true);
+    }
+
+    /**
+     * Invalida el canal en todas las instancias
+     *
+     * @param canal
+     *            clave del canal
+     * @return canal invalidado y hora de la invalidacion
+     */
+    @PostMapping(value = "/{canal:.+}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Object invalidate(@PathVariable String canal) {
+        if (!isEnabled()) {
+            return DISABLED_RESPONSE;
+        }
+        LOGGER.info("Se solicita la invalidacion del canal:{}", canal);
+        invalidationBus.publish(canal);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("canal", canal);
+        result.put("invalidatedAt", System.currentTimeMillis());
+        return result;
+    }
+}
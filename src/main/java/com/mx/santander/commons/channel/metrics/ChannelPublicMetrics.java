@@ -0,0 +1,78 @@
+package com.mx.santander.commons.channel.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.mx.santander.commons.channel.dao.db.ChannelEntry;
+import com.mx.santander.commons.channel.invalidation.ChannelInvalidationBus;
+import com.mx.santander.commons.channel.ratelimit.ChannelRateLimiter;
+import com.mx.santander.commons.channel.registry.ChannelRegistry;
+import com.mx.santander.commons.channel.schedule.ChannelServiceState;
+
+/**
+ * Expone en el endpoint /metrics de actuator el estado de los canales cargados
+ * en {@link ChannelRegistry}, por cada canal se informa si esta dentro de su
+ * horario de servicio y cuando es su siguiente transicion (-1 si no tiene),
+ * su limite de peticiones por segundo y rafaga si lo tiene, cuantas peticiones
+ * se rechazaron fuera de horario, por exceder su limite de peticiones por
+ * segundo o por canal saturado y cuantas peticiones tiene en
+ * ejecucion, si se habilito la invalidacion por redis tambien se informa el
+ * retraso de propagacion de las invalidaciones
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelPublicMetrics implements PublicMetrics {
+    /**
+     * prefijo de las metricas
+     */
+    private static final String PREFIX = "channel.";
+    /**
+     * registro en memoria de canales
+     */
+    @Autowired
+    private ChannelRegistry channelRegistry;
+    /**
+     * invalidacion de canales por redis, solo existe si se habilito
+     */
+    @Autowired(required = false)
+    private ChannelInvalidationBus invalidationBus;
+
+    /**
+     * metricas de los canales
+     */
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        for (ChannelEntry entry : channelRegistry.getSnapshot().getIndex().entries()) {
+            String name = PREFIX + entry.getEntity().getCanal();
+            ChannelServiceState state = entry.getState();
+            metrics.add(new Metric<Integer>(name + ".hours.open", state.isOpen() ? 1 : 0));
+            metrics.add(new Metric<Long>(name + ".hours.nextTransitionAt",
+                    state.getNextTransitionAt() == Long.MAX_VALUE ? -1L : state.getNextTransitionAt()));
+            metrics.add(new Metric<Long>(name + ".hours.rejected", state.getRejected()));
+            metrics.add(new Metric<Long>(name + ".hours.rejected.nearWindow", state.getRejectedNearWindow()));
+            ChannelRateLimiter rateLimiter = entry.getRateLimiter();
+            if (rateLimiter.isLimited()) {
+                metrics.add(new Metric<Integer>(name + ".ratelimit.rate", rateLimiter.getRate()));
+                metrics.add(new Metric<Integer>(name + ".ratelimit.burst", rateLimiter.getBurst()));
+            }
+            metrics.add(new Metric<Long>(name + ".ratelimit.throttled", rateLimiter.getThrottled()));
+            metrics.add(new Metric<Integer>(name + ".bulkhead.inFlight", entry.getBulkhead().getInFlight()));
+            metrics.add(new Metric<Long>(name + ".bulkhead.rejected", entry.getBulkhead().getRejected()));
+        }
+        if (Objects.nonNull(invalidationBus)) {
+            metrics.add(new Metric<Long>("channel.invalidation.published", invalidationBus.getPublished()));
+            metrics.add(new Metric<Long>("channel.invalidation.received", invalidationBus.getReceived()));
+            metrics.add(new Metric<Long>("channel.invalidation.lag.last", invalidationBus.getLastLag()));
+            metrics.add(new Metric<Long>("channel.invalidation.lag.max", invalidationBus.getMaxLag()));
+        }
+        return metrics;
+    }
+}
@@ -1,6 +1,7 @@
 package com.mx.santander.commons.channel.model.entity;
 
 import java.io.Serializable;
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
@@ -48,6 +49,24 @@ public class ChannelsEntity implements Serializable {
      * indica si esta activo
      */
     private boolean activo;
+    /**
+     * peticiones por segundo permitidas al canal, null indica sin limite
+     */
+    private Integer tasaMaxima;
+    /**
+     * peticiones que se permiten de golpe al canal, null toma la tasa maxima
+     */
+    private Integer rafagaMaxima;
+    /**
+     * peticiones en ejecucion permitidas al mismo tiempo al canal, null toma el
+     * valor por default
+     */
+    private Integer maxConcurrencia;
+    /**
+     * fecha de la ultima modificacion del canal, permite la carga incremental de
+     * canales
+     */
+    private Date fechaModificacion;
 
     /**
      * Clase para mapear los horarios de servicio del canal
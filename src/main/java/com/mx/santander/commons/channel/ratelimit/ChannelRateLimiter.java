@@ -0,0 +1,148 @@
+package com.mx.santander.commons.channel.ratelimit;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de peticiones por segundo de un canal implementado como token bucket
+ * con el algoritmo GCRA, todo el estado del bucket es la hora teorica de
+ * llegada de la siguiente peticion guardada en un solo {@link AtomicLong}, por
+ * lo que se consume un token con un compare and set sin bloqueos
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class ChannelRateLimiter {
+    /**
+     * nanosegundos de un segundo
+     */
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * tasa maxima por segundo, 0 si no hay limite
+     */
+    private final int rate;
+    /**
+     * peticiones que se permiten de golpe
+     */
+    private final int burst;
+    /**
+     * nanosegundos que repone cada token
+     */
+    private final long emissionInterval;
+    /**
+     * tolerancia maxima en nanosegundos que se adelanta la hora teorica
+     */
+    private final long tolerance;
+    /**
+     * hora teorica de llegada de la siguiente peticion en nanosegundos
+     */
+    private final AtomicLong theoreticalArrival;
+    /**
+     * peticiones rechazadas por exceder el limite
+     */
+    private final LongAdder throttled;
+
+    /**
+     * Constructor del limite
+     *
+     * @param rate
+     *            tasa maxima por segundo
+     * @param burst
+     *            rafaga maxima
+     * @param throttled
+     *            contador de rechazos
+     */
+    private ChannelRateLimiter(int rate, int burst, LongAdder throttled) {
+        this.rate = rate;
+        this.burst = burst;
+        this.emissionInterval = rate > 0 ? Math.max(NANOS_PER_SECOND / rate, 1L) : 0L;
+        this.tolerance = emissionInterval * burst;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+        this.throttled = throttled;
+    }
+
+    /**
+     * Obtiene el limite del canal, si el limite anterior tiene la misma tasa y
+     * rafaga se conserva con sus tokens, si cambio se crea uno nuevo conservando
+     * el contador de rechazos
+     *
+     * @param tasaMaxima
+     *            peticiones por segundo, null o menor a 1 indica sin limite
+     * @param rafagaMaxima
+     *            peticiones que se permiten de golpe, null o menor a 1 toma la
+     *            tasa maxima
+     * @param previous
+     *            limite de la carga anterior del canal, puede ser null
+     * @return {@link ChannelRateLimiter}
+     */
+    public static ChannelRateLimiter of(Integer tasaMaxima, Integer rafagaMaxima, ChannelRateLimiter previous) {
+        int rate = Objects.nonNull(tasaMaxima) && tasaMaxima > 0 ? tasaMaxima : 0;
+        int burst = Objects.nonNull(rafagaMaxima) && rafagaMaxima > 0 ? rafagaMaxima : Math.max(rate, 1);
+        if (Objects.nonNull(previous) && previous.rate == rate && previous.burst == burst) {
+            return previous;
+        }
+        return new ChannelRateLimiter(rate, burst,
+                Objects.nonNull(previous) ? previous.throttled : new LongAdder());
+    }
+
+    /**
+     * Intenta consumir un token, si el canal no tiene limite siempre se permite
+     *
+     * @return true si la peticion esta dentro del limite
+     */
+    public boolean tryAcquire() {
+        if (rate == 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat - now, 0L) + now + emissionInterval;
+            if (next - now > tolerance) {
+                throttled.increment();
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * indica si el canal tiene limite
+     *
+     * @return true si tiene limite
+     */
+    public boolean isLimited() {
+        return rate > 0;
+    }
+
+    /**
+     * tasa maxima por segundo
+     *
+     * @return 0 si no hay limite
+     */
+    public int getRate() {
+        return rate;
+    }
+
+    /**
+     * rafaga maxima
+     *
+     * @return peticiones
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * peticiones rechazadas por exceder el limite
+     *
+     * @return numero de rechazos
+     */
+    public long getThrottled() {
+        return throttled.sum();
+    }
+}
@@ -0,0 +1,520 @@
+package com.mx.santander.commons.channel.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.mx.santander.commons.channel.dao.db.ChannelEntry;
+import com.mx.santander.commons.channel.dao.db.IChannelsDAO;
+import com.mx.santander.commons.channel.dao.db.IChannelsLookup;
+import com.mx.santander.commons.channel.dao.file.ChannelsFileDAO;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+
+/**
+ * Registro en memoria de los canales, carga los canales al iniciar la
+ * aplicacion y los actualiza en segundo plano cada
+ * {@link #refreshInterval} milisegundos, las actualizaciones solo consultan
+ * los canales modificados desde la ultima carga y cada
+ * {@link #fullRefreshInterval} milisegundos se hace una carga completa para
+ * reflejar bajas de canales, con {@link ChannelsFileDAO} siempre se toman
+ * todos los canales del archivo, los aspectos de canal leen la
+ * {@link ChannelSnapshot} vigente sin bloqueos y sin acceder a BD en cada
+ * peticion
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelRegistry implements IChannelsLookup {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelRegistry.class);
+    /**
+     * tiempo minimo entre actualizaciones disparadas por una fotografia vencida
+     */
+    private static final long MIN_STALE_RETRY_MILLIS = 1000L;
+    /**
+     * espera en milisegundos para reintentar la recarga de un canal mientras hay
+     * una actualizacion en curso
+     */
+    private static final long RELOAD_RETRY_MILLIS = 100L;
+    /**
+     * archivo de canales del entorno dev cuando no se valida con mongo
+     */
+    private static final String DEV_CHANNELS = "classpath:META-INF/gopay-channels-dev.json";
+    /**
+     * Dao de canales
+     */
+    @Autowired
+    private IChannelsDAO channelsDao;
+    /**
+     * publicador de eventos
+     */
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    /**
+     * ambiente de ejecucion
+     */
+    @Value("${spring.profiles.active:dev}")
+    private String env;
+    /**
+     * validar si se activa validacion con mongo
+     */
+    @Value("${com.mx.santander.commons.channel.access.validation.mongo.enable:false}")
+    private boolean validateMongo;
+    /**
+     * intervalo en milisegundos para actualizar los canales
+     */
+    @Value("${com.mx.santander.commons.channel.access.refresh.interval:60000}")
+    private long refreshInterval;
+    /**
+     * antiguedad maxima en milisegundos que se tolera en la fotografia antes de
+     * forzar una actualizacion
+     */
+    @Value("${com.mx.santander.commons.channel.access.refresh.staleness:300000}")
+    private long maxStaleness;
+    /**
+     * intervalo en milisegundos entre cargas completas de canales
+     */
+    @Value("${com.mx.santander.commons.channel.access.refresh.full-interval:600000}")
+    private long fullRefreshInterval;
+    /**
+     * numero maximo de claves de canal desconocidas que se recuerdan
+     */
+    @Value("${com.mx.santander.commons.channel.access.unknown.max-size:1024}")
+    private int unknownMaxSize;
+    /**
+     * milisegundos que se recuerda una clave de canal desconocida
+     */
+    @Value("${com.mx.santander.commons.channel.access.unknown.ttl:60000}")
+    private long unknownTtl;
+    /**
+     * tiempo minimo en milisegundos entre recargas disparadas por claves de canal
+     * desconocidas, 0 desactiva la recarga y las claves desconocidas se rechazan
+     * sin consultar BD
+     */
+    @Value("${com.mx.santander.commons.channel.access.unknown.refresh-interval:0}")
+    private long unknownRefreshInterval;
+    /**
+     * componentes que preparan cada fotografia antes de publicarla
+     */
+    @Autowired(required = false)
+    private List<ChannelSnapshotListener> listeners = Collections.emptyList();
+    /**
+     * respaldo en disco de la ultima fotografia, solo existe si se habilito
+     */
+    @Autowired(required = false)
+    private ChannelSnapshotStore snapshotStore;
+    /**
+     * dao de canales del entorno dev cuando no se valida con mongo
+     */
+    private IChannelsDAO devChannelsDao;
+    /**
+     * ultima lista de canales publicada de {@link ChannelsFileDAO}
+     */
+    private List<ChannelsEntity> fileChannels;
+    /**
+     * fotografia vigente de los canales
+     */
+    private volatile ChannelSnapshot snapshot = ChannelSnapshot.EMPTY;
+    /**
+     * indica si hay una actualizacion en curso
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    /**
+     * hora del ultimo intento de actualizacion
+     */
+    private final AtomicLong lastAttempt = new AtomicLong();
+    /**
+     * claves de canal desconocidas vistas recientemente
+     */
+    private UnknownChannelsCache unknownChannels;
+    /**
+     * fecha de modificacion mas reciente de los canales cargados, null si los
+     * canales no informan fecha de modificacion
+     */
+    private volatile Date watermark;
+    /**
+     * hora de la ultima carga completa
+     */
+    private volatile long lastFullRefresh;
+    /**
+     * hilo encargado de las actualizaciones
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public ChannelRegistry() {
+        LOGGER.info("Inicia registro en memoria de canales");
+    }
+
+    /**
+     * Carga los canales por primera vez y programa la actualizacion periodica
+     */
+    @PostConstruct
+    public void init() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("gopay-channels-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        unknownChannels = new UnknownChannelsCache(unknownMaxSize, unknownTtl);
+        if (isDevStub()) {
+            devChannelsDao = new ChannelsFileDAO(DEV_CHANNELS, false, 0L);
+        } else {
+            ensureIndexes();
+        }
+        if (loadStoredSnapshot()) {
+            scheduler.execute(this::refresh);
+        } else {
+            refresh();
+        }
+        LOGGER.info("Se programa la actualizacion de canales cada {} ms, antiguedad maxima tolerada {} ms",
+                refreshInterval, maxStaleness);
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publica la fotografia del respaldo en disco para atender peticiones
+     * mientras se consultan los canales en BD
+     *
+     * @return true si se publico el respaldo
+     */
+    private boolean loadStoredSnapshot() {
+        if (Objects.isNull(snapshotStore) || isDevStub()) {
+            return false;
+        }
+        ChannelSnapshotStore.StoredSnapshot stored = snapshotStore.load();
+        if (Objects.isNull(stored) || Objects.isNull(stored.getChannels()) || stored.getChannels().isEmpty()) {
+            return false;
+        }
+        try {
+            publish(stored.getChannels(), stored.getLoadedAt(), false);
+            LOGGER.info("Se atienden peticiones con {} canales del respaldo en disco mientras se consulta BD",
+                    snapshot.getIndex().size());
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("No fue posible publicar el respaldo en disco de canales", e);
+            return false;
+        }
+    }
+
+    /**
+     * Detiene la actualizacion periodica
+     */
+    @PreDestroy
+    public void destroy() {
+        if (Objects.nonNull(scheduler)) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Retorna la fotografia vigente de los canales, si la fotografia supera la
+     * antiguedad maxima tolerada se dispara una actualizacion en segundo plano sin
+     * bloquear la peticion
+     *
+     * @return {@link ChannelSnapshot}
+     */
+    public ChannelSnapshot getSnapshot() {
+        ChannelSnapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        long attempt = lastAttempt.get();
+        if (now - current.getLoadedAt() > maxStaleness && now - attempt > MIN_STALE_RETRY_MILLIS
+                && Objects.nonNull(scheduler) && lastAttempt.compareAndSet(attempt, now)) {
+            LOGGER.warn("La fotografia de canales supera la antiguedad maxima tolerada de {} ms", maxStaleness);
+            scheduler.execute(this::refresh);
+        }
+        return current;
+    }
+
+    /**
+     * Busca el canal en el indice de la fotografia vigente, una clave desconocida
+     * se rechaza sin consultar BD, los canales nuevos se reflejan con la
+     * actualizacion periodica o la invalidacion por redis, solo si se habilito la
+     * recarga por claves desconocidas una clave que no se vio recientemente
+     * dispara una recarga en segundo plano
+     */
+    @Override
+    public ChannelEntry findByCanal(String canal) {
+        if (Objects.isNull(canal)) {
+            return null;
+        }
+        ChannelSnapshot current = getSnapshot();
+        ChannelEntry entry = current.getIndex().get(canal);
+        if (Objects.isNull(entry) && unknownRefreshInterval > 0) {
+            onUnknownChannel(canal);
+        }
+        return entry;
+    }
+
+    /**
+     * Registra la clave desconocida en la cache negativa, si no se habia visto
+     * dentro de su vigencia se dispara una recarga respetando el tiempo minimo
+     * entre recargas
+     *
+     * @param canal
+     *            clave del canal
+     */
+    private void onUnknownChannel(String canal) {
+        long now = System.currentTimeMillis();
+        if (!unknownChannels.register(canal, now)) {
+            return;
+        }
+        long attempt = lastAttempt.get();
+        if (now - attempt > unknownRefreshInterval && lastAttempt.compareAndSet(attempt, now)) {
+            LOGGER.debug("Se recargan los canales por la clave desconocida:{}", canal);
+            scheduler.execute(this::refresh);
+        }
+    }
+
+    /**
+     * Consulta los canales y reemplaza de forma atomica la fotografia vigente, si
+     * ya existe una carga completa vigente solo se consultan los canales
+     * modificados, si ocurre un error se conserva la ultima fotografia valida
+     *
+     * @return true si la fotografia fue reemplazada
+     */
+    public boolean refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            LOGGER.debug("Ya existe una actualizacion de canales en curso");
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        lastAttempt.set(now);
+        try {
+            ChannelSnapshot current = snapshot;
+            Date since = watermark;
+            if (channelsDao instanceof ChannelsFileDAO) {
+                refreshFile(current, now);
+            } else if (Objects.nonNull(since) && current != ChannelSnapshot.EMPTY && !isDevStub()
+                    && now - lastFullRefresh < fullRefreshInterval) {
+                refreshModified(current, since, now);
+            } else {
+                publish(loadChannels(), now, true);
+                lastFullRefresh = now;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.error("No fue posible actualizar los canales, se conserva la ultima fotografia valida", e);
+            return false;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Toma todos los canales de {@link ChannelsFileDAO}, el dao regresa la misma
+     * lista mientras el archivo no cambie por lo que solo se publica una nueva
+     * fotografia cuando cambio el archivo, asi se reflejan los cambios que no
+     * actualizan fechaModificacion y los canales eliminados del archivo
+     *
+     * @param current
+     *            fotografia vigente
+     * @param now
+     *            hora actual
+     */
+    private void refreshFile(ChannelSnapshot current, long now) {
+        List<ChannelsEntity> channels = channelsDao.findAllForSnapshot();
+        if (channels == fileChannels && current != ChannelSnapshot.EMPTY) {
+            LOGGER.debug("El archivo de canales no cambio");
+            snapshot = current.withLoadedAt(now);
+            return;
+        }
+        LOGGER.debug("Se toman los canales del archivo");
+        publish(channels, now, true);
+        fileChannels = channels;
+        lastFullRefresh = now;
+    }
+
+    /**
+     * Consulta solo los canales modificados despues de la ultima fecha de
+     * modificacion cargada y los combina con la fotografia vigente, si no hay
+     * cambios solo se renueva la hora de carga, los canales que cambiaron respecto
+     * a la fotografia vigente se notifican con {@link ChannelsChangedEvent}, un
+     * cambio en mongo que no actualiza fechaModificacion no se detecta aqui y se
+     * refleja hasta la siguiente carga completa
+     *
+     * @param current
+     *            fotografia vigente
+     * @param since
+     *            fecha de modificacion mas reciente cargada
+     * @param now
+     *            hora actual
+     */
+    private void refreshModified(ChannelSnapshot current, Date since, long now) {
+        List<ChannelsEntity> modified = channelsDao.findModifiedSince(since);
+        if (Objects.isNull(modified) || modified.isEmpty()) {
+            LOGGER.debug("No existen canales modificados despues de:{}", since);
+            snapshot = current.withLoadedAt(now);
+            return;
+        }
+        List<String> changed = new ArrayList<>();
+        Map<String, ChannelsEntity> merged = new LinkedHashMap<>();
+        current.getChannels().forEach(channel -> merged.putIfAbsent(channel.getCanal(), channel));
+        for (ChannelsEntity channel : modified) {
+            if (Objects.isNull(channel)) {
+                continue;
+            }
+            ChannelEntry before = current.getIndex().get(channel.getCanal());
+            if (Objects.isNull(before) || !Objects.equals(before.getEntity().getFechaModificacion(),
+                    channel.getFechaModificacion())) {
+                changed.add(channel.getCanal());
+            }
+            merged.put(channel.getCanal(), channel);
+        }
+        if (changed.isEmpty()) {
+            LOGGER.debug("Los canales modificados despues de:{} ya estaban cargados", since);
+            snapshot = current.withLoadedAt(now);
+            watermark = modified.stream().map(ChannelsEntity::getFechaModificacion).filter(Objects::nonNull)
+                    .reduce(since, (a, b) -> a.after(b) ? a : b);
+            return;
+        }
+        LOGGER.debug("Se actualizan {} canales modificados despues de:{}", changed.size(), since);
+        publish(new ArrayList<>(merged.values()), now, true);
+        publisher.publishEvent(new ChannelsChangedEvent(this, changed));
+    }
+
+    /**
+     * Recarga en segundo plano solo el canal indicado, se usa cuando otra
+     * instancia notifica un cambio en el canal, no modifica la fecha de
+     * modificacion de referencia para que la siguiente carga incremental no omita
+     * cambios de otros canales
+     *
+     * @param canal
+     *            clave del canal
+     */
+    public void reloadChannel(String canal) {
+        if (Objects.isNull(scheduler) || scheduler.isShutdown()) {
+            return;
+        }
+        scheduler.execute(() -> reload(canal));
+    }
+
+    /**
+     * Consulta el canal y lo reemplaza en la fotografia vigente, si el canal ya
+     * no existe se elimina de la fotografia
+     *
+     * @param canal
+     *            clave del canal
+     */
+    private void reload(String canal) {
+        if (isDevStub()) {
+            return;
+        }
+        if (!refreshing.compareAndSet(false, true)) {
+            scheduler.schedule(() -> reload(canal), RELOAD_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            return;
+        }
+        try {
+            ChannelSnapshot current = snapshot;
+            ChannelsEntity channel = channelsDao.findByCanal(canal);
+            Map<String, ChannelsEntity> merged = new LinkedHashMap<>();
+            current.getChannels().forEach(before -> merged.putIfAbsent(before.getCanal(), before));
+            if (Objects.isNull(channel)) {
+                merged.remove(canal);
+            } else {
+                merged.put(canal, channel);
+            }
+            publish(new ArrayList<>(merged.values()), current.getLoadedAt(), false);
+            LOGGER.debug("Se recarga el canal:{}", canal);
+        } catch (RuntimeException e) {
+            LOGGER.error("No fue posible recargar el canal:{}", canal, e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Construye la nueva fotografia, la entrega a los componentes que la preparan
+     * y la publica
+     *
+     * @param canales
+     *            canales cargados
+     * @param now
+     *            hora de carga
+     * @param advanceWatermark
+     *            true si se toma como referencia la fecha de modificacion mas
+     *            reciente de los canales cargados
+     */
+    private void publish(List<ChannelsEntity> canales, long now, boolean advanceWatermark) {
+        if (Objects.isNull(canales)) {
+            canales = Collections.emptyList();
+        }
+        if (canales.isEmpty()) {
+            LOGGER.error("No existen canales registrados en BD para validar el acceso");
+        }
+        ChannelSnapshot next = new ChannelSnapshot(canales, now, snapshot);
+        listeners.forEach(listener -> listener.onSnapshot(next));
+        snapshot = next;
+        if (advanceWatermark) {
+            watermark = canales.stream().map(ChannelsEntity::getFechaModificacion).filter(Objects::nonNull)
+                    .max(Date::compareTo).orElse(null);
+        }
+        unknownChannels.clear();
+        if (Objects.nonNull(snapshotStore) && !isDevStub()) {
+            scheduler.execute(() -> snapshotStore.save(next.getChannels(), next.getLoadedAt()));
+        }
+        LOGGER.debug("Se actualizan {} canales en memoria", next.getIndex().size());
+    }
+
+    /**
+     * Crea los indices de la colecion de canales, si falla se continua con la
+     * carga de canales
+     */
+    private void ensureIndexes() {
+        try {
+            channelsDao.ensureIndexes();
+        } catch (RuntimeException e) {
+            LOGGER.warn("No fue posible asegurar los indices de la colecion de canales", e);
+        }
+    }
+
+    /**
+     * indica si se usan los canales del archivo del entorno dev sin conectar a BD,
+     * no aplica si se configuro un dao de canales en archivo
+     *
+     * @return true si es entorno dev sin validacion con mongo
+     */
+    private boolean isDevStub() {
+        return "dev".equalsIgnoreCase(env) && !validateMongo && !(channelsDao instanceof ChannelsFileDAO);
+    }
+
+    /**
+     * Obtiene los canales de BD con solo los campos necesarios para validar el
+     * acceso, si el entorno es dev y no se activo la validacion con mongo se
+     * regresan los canales del archivo de canales del entorno dev sin conectar a
+     * BD
+     *
+     * @return lista de {@link ChannelsEntity}
+     */
+    private List<ChannelsEntity> loadChannels() {
+        if (isDevStub()) {
+            return devChannelsDao.findAllForSnapshot();
+        }
+        LOGGER.debug("Se consultan los canales en BD");
+        return channelsDao.findAllForSnapshot();
+    }
+}
@@ -0,0 +1,110 @@
+package com.mx.santander.commons.channel.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.mx.santander.commons.channel.dao.db.ChannelsIndex;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+
+/**
+ * Fotografia inmutable de los canales cargados en {@link ChannelRegistry} junto
+ * con su indice por clave de canal, una vez construida no se modifica, el
+ * registro la reemplaza completa en cada actualizacion para que los aspectos la
+ * lean sin bloqueos
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class ChannelSnapshot {
+    /**
+     * fotografia vacia usada antes de la primera carga
+     */
+    public static final ChannelSnapshot EMPTY = new ChannelSnapshot(Collections.<ChannelsEntity>emptyList(), 0L,
+            null);
+    /**
+     * canales cargados
+     */
+    private final List<ChannelsEntity> channels;
+    /**
+     * indice de canales por clave
+     */
+    private final ChannelsIndex index;
+    /**
+     * hora en milisegundos en que se cargo la fotografia
+     */
+    private final long loadedAt;
+
+    /**
+     * Constructor de la fotografia, se copia la lista para que no pueda ser
+     * modificada desde fuera
+     *
+     * @param channels
+     *            canales cargados
+     * @param loadedAt
+     *            hora de carga en milisegundos
+     * @param previous
+     *            fotografia anterior de la que se conserva el estado de los
+     *            canales, puede ser null
+     */
+    public ChannelSnapshot(List<ChannelsEntity> channels, long loadedAt, ChannelSnapshot previous) {
+        this.channels = Collections.unmodifiableList(new ArrayList<>(channels));
+        this.index = new ChannelsIndex(this.channels, Objects.nonNull(previous) ? previous.index : null);
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Constructor de una copia de la fotografia con otra hora de carga que
+     * comparte los canales y el indice
+     *
+     * @param source
+     *            fotografia origen
+     * @param loadedAt
+     *            hora de carga en milisegundos
+     */
+    private ChannelSnapshot(ChannelSnapshot source, long loadedAt) {
+        this.channels = source.channels;
+        this.index = source.index;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Copia de la fotografia con otra hora de carga, se usa cuando una carga
+     * incremental no encuentra cambios
+     *
+     * @param loadedAt
+     *            hora de carga en milisegundos
+     * @return {@link ChannelSnapshot}
+     */
+    public ChannelSnapshot withLoadedAt(long loadedAt) {
+        return new ChannelSnapshot(this, loadedAt);
+    }
+
+    /**
+     * canales de la fotografia
+     *
+     * @return lista no modificable de {@link ChannelsEntity}
+     */
+    public List<ChannelsEntity> getChannels() {
+        return channels;
+    }
+
+    /**
+     * indice de canales por clave
+     *
+     * @return {@link ChannelsIndex}
+     */
+    public ChannelsIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * hora en que se cargo la fotografia
+     *
+     * @return milisegundos
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.mx.santander.commons.channel.registry;
+
+/**
+ * Componentes que necesitan preparar informacion de cada
+ * {@link ChannelSnapshot} antes de que {@link ChannelRegistry} la publique a los
+ * aspectos
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public interface ChannelSnapshotListener {
+
+    /**
+     * se invoca con la nueva fotografia antes de publicarla
+     *
+     * @param snapshot
+     *            {@link ChannelSnapshot}
+     */
+    void onSnapshot(ChannelSnapshot snapshot);
+
+}
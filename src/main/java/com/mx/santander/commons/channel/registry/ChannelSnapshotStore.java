@@ -0,0 +1,143 @@
+package com.mx.santander.commons.channel.registry;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+import com.mx.santander.commons.utils.JacksonUtils;
+
+import lombok.Data;
+
+/**
+ * Guarda en un archivo local en formato JSON la ultima fotografia valida de
+ * canales para que al reiniciar la aplicacion {@link ChannelRegistry} la cargue
+ * de inmediato sin esperar a BD, el archivo se escribe primero en un archivo
+ * temporal y despues se mueve para que nunca quede escrito a medias
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelSnapshotStore {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelSnapshotStore.class);
+    /**
+     * lector que ignora campos desconocidos para tolerar cambios en la entidad
+     */
+    private static final ObjectReader READER = JacksonUtils.JACKSON.readerFor(StoredSnapshot.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    /**
+     * ruta del archivo
+     */
+    @Value("${com.mx.santander.commons.channel.access.snapshot.file:${java.io.tmpdir}/gopay-channels-snapshot.json}")
+    private String file;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public ChannelSnapshotStore() {
+        LOGGER.info("Inicia respaldo en disco de canales");
+    }
+
+    /**
+     * Lee la fotografia guardada
+     *
+     * @return {@link StoredSnapshot} o null si no existe o no se puede leer
+     */
+    public StoredSnapshot load() {
+        Path path = Paths.get(file);
+        if (!Files.isRegularFile(path)) {
+            LOGGER.info("No existe respaldo en disco de canales en:{}", path);
+            return null;
+        }
+        try {
+            StoredSnapshot stored = READER.readValue(Files.readAllBytes(path));
+            LOGGER.info("Se cargan los canales del respaldo en disco:{}", path);
+            return stored;
+        } catch (IOException e) {
+            LOGGER.warn("No fue posible leer el respaldo en disco de canales:{}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Guarda la fotografia, si falla se conserva el archivo anterior
+     *
+     * @param channels
+     *            canales
+     * @param loadedAt
+     *            hora de carga en milisegundos
+     */
+    public void save(List<ChannelsEntity> channels, long loadedAt) {
+        StoredSnapshot stored = new StoredSnapshot();
+        stored.setLoadedAt(loadedAt);
+        stored.setChannels(channels);
+        Path path = Paths.get(file).toAbsolutePath();
+        Path tmp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            Files.write(tmp, JacksonUtils.JACKSON.writeValueAsBytes(stored));
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.debug("Se guarda el respaldo en disco de {} canales", channels.size());
+        } catch (IOException e) {
+            LOGGER.warn("No fue posible guardar el respaldo en disco de canales:{}", path, e);
+            deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * Elimina el archivo temporal
+     *
+     * @param tmp
+     *            archivo temporal, puede ser null
+     */
+    private static void deleteQuietly(Path tmp) {
+        if (Objects.isNull(tmp)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            LOGGER.debug("No fue posible eliminar el archivo temporal:{}", tmp, e);
+        }
+    }
+
+    /**
+     * Contenido del archivo de respaldo
+     *
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Data
+    public static class StoredSnapshot {
+        /**
+         * hora de carga en milisegundos
+         */
+        private long loadedAt;
+        /**
+         * canales
+         */
+        private List<ChannelsEntity> channels;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mx.santander.commons.channel.registry;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Evento que publica {@link ChannelRegistry} cuando una carga incremental
+ * encuentra canales que cambiaron respecto a la fotografia vigente
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelsChangedEvent extends ApplicationEvent {
+    /**
+     * version de clase
+     */
+    private static final long serialVersionUID = 2838160942306614377L;
+    /**
+     * claves de los canales que cambiaron
+     */
+    private final List<String> canales;
+
+    /**
+     * Constructor del evento
+     *
+     * @param source
+     *            origen del evento
+     * @param canales
+     *            claves de los canales que cambiaron
+     */
+    public ChannelsChangedEvent(Object source, List<String> canales) {
+        super(source);
+        this.canales = Collections.unmodifiableList(canales);
+    }
+
+    /**
+     * claves de los canales que cambiaron
+     *
+     * @return lista no modificable de claves
+     */
+    public List<String> getCanales() {
+        return canales;
+    }
+}
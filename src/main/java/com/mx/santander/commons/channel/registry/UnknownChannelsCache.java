@@ -0,0 +1,78 @@
+package com.mx.santander.commons.channel.registry;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache negativa acotada de claves de canal desconocidas vistas recientemente,
+ * evita que clientes mal configurados o escaneos con valores aleatorios en el
+ * header x-channel disparen recargas de canales, al llegar al tamano maximo se
+ * vacia completa y se vacia tambien en cada nueva fotografia de canales
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class UnknownChannelsCache {
+    /**
+     * hora en milisegundos en que se vio cada clave desconocida
+     */
+    private final Map<String, Long> seen = new ConcurrentHashMap<>();
+    /**
+     * numero maximo de claves
+     */
+    private final int maxSize;
+    /**
+     * vigencia en milisegundos de cada clave
+     */
+    private final long ttl;
+
+    /**
+     * Constructor de la cache
+     *
+     * @param maxSize
+     *            numero maximo de claves
+     * @param ttl
+     *            vigencia en milisegundos de cada clave
+     */
+    public UnknownChannelsCache(int maxSize, long ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Registra la clave desconocida
+     *
+     * @param canal
+     *            clave del canal
+     * @param now
+     *            hora actual en milisegundos
+     * @return true si la clave no se habia visto dentro de su vigencia
+     */
+    public boolean register(String canal, long now) {
+        Long before = seen.get(canal);
+        if (Objects.nonNull(before) && now - before < ttl) {
+            return false;
+        }
+        if (seen.size() >= maxSize) {
+            seen.clear();
+        }
+        return Objects.equals(seen.put(canal, now), before);
+    }
+
+    /**
+     * vacia la cache
+     */
+    public void clear() {
+        seen.clear();
+    }
+
+    /**
+     * numero de claves en la cache
+     *
+     * @return numero de claves
+     */
+    public int size() {
+        return seen.size();
+    }
+}
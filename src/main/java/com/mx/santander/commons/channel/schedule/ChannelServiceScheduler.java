@@ -0,0 +1,180 @@
+package com.mx.santander.commons.channel.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.mx.santander.commons.channel.dao.db.ChannelEntry;
+import com.mx.santander.commons.channel.registry.ChannelSnapshot;
+import com.mx.santander.commons.channel.registry.ChannelSnapshotListener;
+
+/**
+ * Calcula a partir del horario de servicio compilado de cada canal su siguiente
+ * transicion de abierto a cerrado o viceversa y programa el cambio de
+ * {@link ChannelServiceState} en ese instante, de modo que los aspectos solo
+ * leen una bandera volatil, en cada transicion publica
+ * {@link ChannelServiceTransitionEvent}
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelServiceScheduler implements ChannelSnapshotListener {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelServiceScheduler.class);
+    /**
+     * milisegundos de un minuto
+     */
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    /**
+     * espera maxima entre revisiones del estado, acota el desfase por cambios de
+     * horario de verano
+     */
+    private static final long MAX_DELAY_MILLIS = 60 * MILLIS_PER_MINUTE;
+    /**
+     * reloj de horarios de servicio
+     */
+    @Autowired
+    private ServiceClock serviceClock;
+    /**
+     * publicador de eventos
+     */
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    /**
+     * minutos alrededor de una transicion para contar un rechazo como cercano al
+     * horario
+     */
+    @Value("${com.mx.santander.commons.channel.access.hours.near-window:5}")
+    private long nearWindowMinutes;
+    /**
+     * hilo encargado de las transiciones
+     */
+    private ScheduledExecutorService executor;
+    /**
+     * transiciones programadas de la fotografia vigente
+     */
+    private final List<ScheduledFuture<?>> transitions = new ArrayList<>();
+    /**
+     * generacion de la fotografia vigente, descarta transiciones de fotografias
+     * anteriores
+     */
+    private volatile long generation;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public ChannelServiceScheduler() {
+        LOGGER.info("Inicia programador de horarios de servicio por canal");
+    }
+
+    /**
+     * Inicia el hilo de transiciones
+     */
+    @PostConstruct
+    public void init() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("gopay-channel-hours-");
+        threadFactory.setDaemon(true);
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Detiene las transiciones programadas
+     */
+    @PreDestroy
+    public void destroy() {
+        if (Objects.nonNull(executor)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Calcula el estado actual de cada canal de la nueva fotografia y programa su
+     * siguiente transicion, las transiciones de la fotografia anterior se cancelan
+     */
+    @Override
+    public synchronized void onSnapshot(ChannelSnapshot snapshot) {
+        long current = ++generation;
+        transitions.forEach(transition -> transition.cancel(false));
+        transitions.clear();
+        for (ChannelEntry entry : snapshot.getIndex().entries()) {
+            evaluate(entry, current, false);
+        }
+    }
+
+    /**
+     * Evalua el estado del canal en la hora actual, si cambio publica el evento y
+     * programa la siguiente revision
+     *
+     * @param entry
+     *            canal
+     * @param expected
+     *            generacion de la fotografia a la que pertenece el canal
+     * @param transition
+     *            true si se invoca en el instante de una transicion programada
+     */
+    private void evaluate(ChannelEntry entry, long expected, boolean transition) {
+        if (expected != generation) {
+            return;
+        }
+        ChannelServiceState state = entry.getState();
+        ServiceSchedule schedule = entry.getSchedule();
+        long now = System.currentTimeMillis();
+        int minuteOfWeek = serviceClock.minuteOfWeek(now);
+        boolean open = schedule.isOpen(minuteOfWeek);
+        // el primer calculo solo toma el estado del horario, no es una transicion
+        boolean changed = state.isInitialized() && open != state.isOpen();
+        long lastTransitionAt = changed && transition ? now : state.getLastTransitionAt();
+        int minutes = schedule.minutesUntilChange(minuteOfWeek);
+        long nextTransitionAt = minutes < 0 ? Long.MAX_VALUE
+                : serviceClock.startOfMinute(now) + minutes * MILLIS_PER_MINUTE;
+        state.update(open, lastTransitionAt, nextTransitionAt, nearWindowMinutes * MILLIS_PER_MINUTE);
+        String canal = entry.getEntity().getCanal();
+        if (changed) {
+            LOGGER.info("El canal:{} {} su horario de servicio", canal, open ? "entra a" : "sale de");
+            publisher.publishEvent(new ChannelServiceTransitionEvent(this, canal, open));
+        }
+        if (minutes < 0) {
+            LOGGER.debug("El canal:{} no tiene transiciones en su horario de servicio", canal);
+            return;
+        }
+        long delay = Math.min(Math.max(nextTransitionAt - now, 0L), MAX_DELAY_MILLIS);
+        schedule(entry, expected, delay);
+    }
+
+    /**
+     * Programa la siguiente revision del canal
+     *
+     * @param entry
+     *            canal
+     * @param expected
+     *            generacion de la fotografia
+     * @param delay
+     *            milisegundos de espera
+     */
+    private synchronized void schedule(ChannelEntry entry, long expected, long delay) {
+        if (expected != generation || executor.isShutdown()) {
+            return;
+        }
+        transitions.removeIf(ScheduledFuture::isDone);
+        transitions.add(executor.schedule(() -> evaluate(entry, expected, true), delay, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,134 @@
+package com.mx.santander.commons.channel.schedule;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estado abierto/cerrado de un canal segun su horario de servicio, el estado lo
+ * cambia {@link ChannelServiceScheduler} en el instante de cada transicion y los
+ * aspectos solo leen la bandera, tambien lleva la cuenta de peticiones
+ * rechazadas fuera de horario
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class ChannelServiceState {
+    /**
+     * indica si el canal esta dentro de su horario de servicio
+     */
+    private volatile boolean open;
+    /**
+     * indica si ya se calculo el estado con el horario de servicio
+     */
+    private volatile boolean initialized;
+    /**
+     * hora en milisegundos de la ultima transicion
+     */
+    private volatile long lastTransitionAt;
+    /**
+     * hora en milisegundos de la siguiente transicion, {@link Long#MAX_VALUE} si
+     * no hay transiciones
+     */
+    private volatile long nextTransitionAt = Long.MAX_VALUE;
+    /**
+     * ventana en milisegundos alrededor de una transicion para considerar un
+     * rechazo como cercano al horario
+     */
+    private volatile long nearWindowMillis;
+    /**
+     * peticiones rechazadas fuera de horario
+     */
+    private final LongAdder rejected = new LongAdder();
+    /**
+     * peticiones rechazadas dentro de la ventana cercana a una transicion
+     */
+    private final LongAdder rejectedNearWindow = new LongAdder();
+
+    /**
+     * indica si el canal esta dentro de su horario de servicio
+     *
+     * @return true si esta abierto
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * indica si ya se calculo el estado con el horario de servicio, el primer
+     * calculo no es una transicion
+     *
+     * @return true si ya se calculo
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Registra un rechazo fuera de horario, si ocurre dentro de la ventana
+     * cercana a la ultima o siguiente transicion tambien se cuenta como cercano
+     *
+     * @param now
+     *            hora actual en milisegundos
+     */
+    public void recordRejection(long now) {
+        rejected.increment();
+        if (now - lastTransitionAt <= nearWindowMillis || nextTransitionAt - now <= nearWindowMillis) {
+            rejectedNearWindow.increment();
+        }
+    }
+
+    /**
+     * peticiones rechazadas fuera de horario
+     *
+     * @return numero de rechazos
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * peticiones rechazadas cerca de una transicion
+     *
+     * @return numero de rechazos
+     */
+    public long getRejectedNearWindow() {
+        return rejectedNearWindow.sum();
+    }
+
+    /**
+     * hora de la siguiente transicion
+     *
+     * @return milisegundos o {@link Long#MAX_VALUE} si no hay transiciones
+     */
+    public long getNextTransitionAt() {
+        return nextTransitionAt;
+    }
+
+    /**
+     * Actualiza el estado, solo lo invoca {@link ChannelServiceScheduler}
+     *
+     * @param open
+     *            nuevo estado
+     * @param lastTransitionAt
+     *            hora de la ultima transicion
+     * @param nextTransitionAt
+     *            hora de la siguiente transicion
+     * @param nearWindowMillis
+     *            ventana cercana a una transicion
+     */
+    void update(boolean open, long lastTransitionAt, long nextTransitionAt, long nearWindowMillis) {
+        this.lastTransitionAt = lastTransitionAt;
+        this.nextTransitionAt = nextTransitionAt;
+        this.nearWindowMillis = nearWindowMillis;
+        this.open = open;
+        this.initialized = true;
+    }
+
+    /**
+     * hora de la ultima transicion
+     *
+     * @return milisegundos
+     */
+    long getLastTransitionAt() {
+        return lastTransitionAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mx.santander.commons.channel.schedule;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Evento publicado por {@link ChannelServiceScheduler} cada vez que un canal
+ * entra o sale de su horario de servicio
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelServiceTransitionEvent extends ApplicationEvent {
+    /**
+     * version de clase
+     */
+    private static final long serialVersionUID = 5164720329913618217L;
+    /**
+     * canal
+     */
+    private final String canal;
+    /**
+     * nuevo estado del canal
+     */
+    private final boolean open;
+
+    /**
+     * Constructor del evento
+     *
+     * @param source
+     *            quien publica el evento
+     * @param canal
+     *            canal
+     * @param open
+     *            true si el canal entra a su horario de servicio
+     */
+    public ChannelServiceTransitionEvent(Object source, String canal, boolean open) {
+        super(source);
+        this.canal = canal;
+        this.open = open;
+    }
+
+    /**
+     * canal
+     *
+     * @return clave del canal
+     */
+    public String getCanal() {
+        return canal;
+    }
+
+    /**
+     * nuevo estado
+     *
+     * @return true si el canal entra a su horario de servicio
+     */
+    public boolean isOpen() {
+        return open;
+    }
+}
@@ -0,0 +1,140 @@
+package com.mx.santander.commons.channel.schedule;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * Reloj de horarios de servicio, calcula el minuto de la semana en la zona
+ * horaria configurada y lo conserva hasta que termina el minuto, de modo que en
+ * cada peticion solo se compara la hora actual con el minuto vigente sin
+ * generar objetos
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class ServiceClock {
+    /**
+     * milisegundos de un minuto
+     */
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    /**
+     * zona horaria de los horarios de servicio
+     */
+    private final ZoneId zone;
+    /**
+     * minuto vigente
+     */
+    private volatile Minute current;
+
+    /**
+     * Constructor del reloj
+     *
+     * @param zone
+     *            zona horaria de los horarios de servicio
+     */
+    public ServiceClock(ZoneId zone) {
+        this.zone = Objects.requireNonNull(zone, "zone no puede ser nulo");
+        this.current = compute(System.currentTimeMillis());
+    }
+
+    /**
+     * minuto de la semana de la hora actual, lunes 00:00 es el minuto 0
+     *
+     * @return minuto de la semana
+     */
+    public int minuteOfWeek() {
+        return minuteOfWeek(System.currentTimeMillis());
+    }
+
+    /**
+     * minuto de la semana de la hora informada
+     *
+     * @param epochMillis
+     *            hora en milisegundos
+     * @return minuto de la semana
+     */
+    public int minuteOfWeek(long epochMillis) {
+        Minute minute = current;
+        if (epochMillis >= minute.start && epochMillis < minute.end) {
+            return minute.minuteOfWeek;
+        }
+        minute = compute(epochMillis);
+        current = minute;
+        return minute.minuteOfWeek;
+    }
+
+    /**
+     * inicio en milisegundos del minuto al que pertenece la hora informada
+     *
+     * @param epochMillis
+     *            hora en milisegundos
+     * @return inicio del minuto en milisegundos
+     */
+    public long startOfMinute(long epochMillis) {
+        Minute minute = current;
+        if (epochMillis >= minute.start && epochMillis < minute.end) {
+            return minute.start;
+        }
+        return compute(epochMillis).start;
+    }
+
+    /**
+     * zona horaria del reloj
+     *
+     * @return {@link ZoneId}
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * calcula el minuto de la semana y los limites del minuto
+     *
+     * @param epochMillis
+     *            hora en milisegundos
+     * @return {@link Minute}
+     */
+    private Minute compute(long epochMillis) {
+        ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(zone);
+        int minuteOfWeek = (time.getDayOfWeek().getValue() - 1) * ServiceSchedule.MINUTES_PER_DAY
+                + time.getHour() * 60 + time.getMinute();
+        long start = epochMillis - time.getSecond() * 1000L - time.getNano() / 1_000_000;
+        return new Minute(start, start + MILLIS_PER_MINUTE, minuteOfWeek);
+    }
+
+    /**
+     * minuto calculado con sus limites en milisegundos
+     */
+    private static final class Minute {
+        /**
+         * inicio del minuto
+         */
+        private final long start;
+        /**
+         * fin del minuto, exclusivo
+         */
+        private final long end;
+        /**
+         * minuto de la semana
+         */
+        private final int minuteOfWeek;
+
+        /**
+         * Constructor del minuto
+         *
+         * @param start
+         *            inicio
+         * @param end
+         *            fin
+         * @param minuteOfWeek
+         *            minuto de la semana
+         */
+        private Minute(long start, long end, int minuteOfWeek) {
+            this.start = start;
+            this.end = end;
+            this.minuteOfWeek = minuteOfWeek;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.mx.santander.commons.channel.schedule;
+
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity.HorarioServicio;
+
+/**
+ * Horario de servicio compilado a un mapa de bits con un bit por cada minuto de
+ * la semana (lunes 00:00 es el minuto 0), se construye una sola vez al cargar
+ * los canales para que validar el horario en cada peticion sea una sola
+ * consulta al mapa sin parsear fechas ni generar objetos
+ *
+ * <p>
+ * La precision es al minuto, las horas con segundos se redondean al minuto
+ * siguiente, si la hora fin es menor a la hora inicio el horario termina al dia
+ * siguiente
+ * </p>
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class ServiceSchedule {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceSchedule.class);
+    /**
+     * minutos de un dia
+     */
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    /**
+     * minutos de una semana
+     */
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    /**
+     * horario sin minutos habilitados
+     */
+    public static final ServiceSchedule CLOSED = new ServiceSchedule(new long[words()]);
+    /**
+     * dias de la semana aceptados en español e ingles
+     */
+    private static final Map<String, DayOfWeek> DAYS = new HashMap<>();
+
+    static {
+        DAYS.put("lun", DayOfWeek.MONDAY);
+        DAYS.put("mar", DayOfWeek.TUESDAY);
+        DAYS.put("mie", DayOfWeek.WEDNESDAY);
+        DAYS.put("jue", DayOfWeek.THURSDAY);
+        DAYS.put("vie", DayOfWeek.FRIDAY);
+        DAYS.put("sab", DayOfWeek.SATURDAY);
+        DAYS.put("dom", DayOfWeek.SUNDAY);
+        DAYS.put("mon", DayOfWeek.MONDAY);
+        DAYS.put("tue", DayOfWeek.TUESDAY);
+        DAYS.put("wed", DayOfWeek.WEDNESDAY);
+        DAYS.put("thu", DayOfWeek.THURSDAY);
+        DAYS.put("fri", DayOfWeek.FRIDAY);
+        DAYS.put("sat", DayOfWeek.SATURDAY);
+        DAYS.put("sun", DayOfWeek.SUNDAY);
+    }
+
+    /**
+     * un bit por minuto de la semana
+     */
+    private final long[] minutes;
+
+    /**
+     * Constructor privado, las instancias se obtienen con
+     * {@link #compile(HorarioServicio)}
+     *
+     * @param minutes
+     *            mapa de bits
+     */
+    private ServiceSchedule(long[] minutes) {
+        this.minutes = minutes;
+    }
+
+    /**
+     * Compila el horario de servicio del canal, si el horario no existe o no
+     * cumple con el formato se regresa {@link #CLOSED}
+     *
+     * @param horario
+     *            {@link HorarioServicio}
+     * @return {@link ServiceSchedule}
+     */
+    public static ServiceSchedule compile(HorarioServicio horario) {
+        if (Objects.isNull(horario) || Objects.isNull(horario.getDias()) || Objects.isNull(horario.getHoraInicio())
+                || Objects.isNull(horario.getHoraFin())) {
+            LOGGER.warn("El canal no tiene horario de servicio completo, se considera fuera de servicio");
+            return CLOSED;
+        }
+        try {
+            return compile(horario.getDias(), horario.getHoraInicio(), horario.getHoraFin());
+        } catch (DateTimeParseException e) {
+            LOGGER.error("El horario de servicio dias:{} hora inicio:{} hora fin:{} no es valido", horario.getDias(),
+                    horario.getHoraInicio(), horario.getHoraFin(), e);
+            return CLOSED;
+        }
+    }
+
+    /**
+     * Compila los dias y horas de servicio
+     *
+     * @param dias
+     *            dias validos, por ejemplo Lun, Mar, Mie, Jue, Vie, Sab, Dom
+     * @param horaInicio
+     *            hora de inicio con formato HH:mm:ss o HH:mm de 0-23
+     * @param horaFin
+     *            hora de fin con formato HH:mm:ss o HH:mm de 0-23
+     * @return {@link ServiceSchedule}
+     * @throws DateTimeParseException
+     *             si las horas no cumplen con el formato
+     */
+    public static ServiceSchedule compile(List<String> dias, String horaInicio, String horaFin) {
+        Objects.requireNonNull(dias, "dias no puede ser nulo");
+        Objects.requireNonNull(horaInicio, "horaInicio no puede ser nulo");
+        Objects.requireNonNull(horaFin, "horaFin no puede ser nulo");
+        int start = toMinuteOfDay(LocalTime.parse(horaInicio.trim()));
+        int end = toMinuteOfDay(LocalTime.parse(horaFin.trim()));
+        if (start == end) {
+            LOGGER.warn("La hora inicio:{} y hora fin:{} son iguales, el horario no tiene minutos habilitados",
+                    horaInicio, horaFin);
+            return CLOSED;
+        }
+        // si la hora fin es menor el horario cruza la medianoche
+        int length = end > start ? end - start : MINUTES_PER_DAY - start + end;
+        long[] minutes = new long[words()];
+        for (String dia : dias) {
+            DayOfWeek day = toDayOfWeek(dia);
+            if (Objects.isNull(day)) {
+                LOGGER.warn("El dia:{} del horario de servicio no es valido, se omite", dia);
+                continue;
+            }
+            int from = (day.getValue() - 1) * MINUTES_PER_DAY + start;
+            for (int i = 0; i < length; i++) {
+                int minute = (from + i) % MINUTES_PER_WEEK;
+                minutes[minute >>> 6] |= 1L << minute;
+            }
+        }
+        return new ServiceSchedule(minutes);
+    }
+
+    /**
+     * Indica si el minuto de la semana esta dentro del horario de servicio
+     *
+     * @param minuteOfWeek
+     *            minuto de la semana, ver {@link ServiceClock#minuteOfWeek()}
+     * @return true si esta dentro del horario
+     */
+    public boolean isOpen(int minuteOfWeek) {
+        return (minutes[minuteOfWeek >>> 6] & (1L << minuteOfWeek)) != 0;
+    }
+
+    /**
+     * Calcula cuantos minutos faltan para que cambie el estado del horario a partir
+     * del minuto de la semana informado
+     *
+     * @param minuteOfWeek
+     *            minuto de la semana actual
+     * @return minutos hasta el siguiente cambio de estado o -1 si el estado nunca
+     *         cambia
+     */
+    public int minutesUntilChange(int minuteOfWeek) {
+        boolean open = isOpen(minuteOfWeek);
+        for (int i = 1; i < MINUTES_PER_WEEK; i++) {
+            if (isOpen((minuteOfWeek + i) % MINUTES_PER_WEEK) != open) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * convierte la hora al minuto del dia, los segundos se redondean al minuto
+     * siguiente
+     *
+     * @param time
+     *            hora
+     * @return minuto del dia
+     */
+    private static int toMinuteOfDay(LocalTime time) {
+        int minute = time.getHour() * 60 + time.getMinute();
+        if (time.getSecond() > 0 || time.getNano() > 0) {
+            minute++;
+        }
+        return minute;
+    }
+
+    /**
+     * convierte el nombre del dia sin importar mayusculas, acentos o puntos
+     *
+     * @param dia
+     *            nombre del dia
+     * @return {@link DayOfWeek} o null si no es valido
+     */
+    private static DayOfWeek toDayOfWeek(String dia) {
+        if (Objects.isNull(dia)) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(dia.trim(), Normalizer.Form.NFD).replaceAll("[\\p{M}.]", "")
+                .toLowerCase(Locale.ROOT);
+        if (normalized.length() < 3) {
+            return null;
+        }
+        return DAYS.get(normalized.substring(0, 3));
+    }
+
+    /**
+     * numero de palabras de 64 bits para los minutos de la semana
+     *
+     * @return numero de palabras
+     */
+    private static int words() {
+        return (MINUTES_PER_WEEK + 63) >>> 6;
+    }
+}
@@ -0,0 +1,209 @@
+package com.mx.santander.commons.channel.security;
+
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.mx.santander.commons.advice.AdvicePlan;
+import com.mx.santander.commons.advice.GuardedCall;
+import com.mx.santander.commons.channel.bulkhead.ChannelBulkhead;
+import com.mx.santander.commons.channel.dao.db.ChannelEntry;
+import com.mx.santander.commons.channel.dao.db.IChannelsLookup;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+import com.mx.santander.commons.constant.ConstCommons;
+import com.mx.santander.commons.constant.ConstErrorCode;
+import com.mx.santander.commons.constant.ConstMessageCode;
+import com.mx.santander.commons.messages.MessageWithOutTraceException;
+import com.mx.santander.commons.timer.phase.Phase;
+import com.mx.santander.commons.timer.phase.PhaseTimings;
+import com.mx.santander.commons.utils.RequestUtils;
+
+/**
+ * Validaciones de canal de una peticion, resuelve el canal del header x-channel
+ * una sola vez y en una sola pasada valida el acceso, el estado activo, el
+ * horario de servicio, el limite de peticiones por segundo y el limite de
+ * peticiones en ejecucion del canal, la usan tanto el aspecto de canal como el
+ * interceptor de commons
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ChannelGuard {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelGuard.class);
+    /**
+     * consulta en memoria de canales
+     */
+    @Autowired
+    private IChannelsLookup channelsLookup;
+    /**
+     * peticiones en ejecucion permitidas por canal cuando el canal no lo informa,
+     * 0 indica sin limite
+     */
+    @Value("${com.mx.santander.commons.channel.access.bulkhead.max-concurrent:0}")
+    private int defaultMaxConcurrent;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     * 
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public ChannelGuard() {
+        LOGGER.info("Inicia validaciones de canal");
+    }
+
+    /**
+     * Valida el canal de la peticion actual segun el plan del metodo y ejecuta el
+     * servicio ocupando un lugar en el compartimento de concurrencia del canal
+     * 
+     * @param plan
+     *            plan de validacion del metodo
+     * @param call
+     *            ejecucion del servicio
+     * @return respuesta del servicio
+     * @throws Throwable
+     *             exception
+     */
+    public Object invoke(AdvicePlan plan, GuardedCall call) throws Throwable {
+        long start = PhaseTimings.start();
+        ChannelEntry entry;
+        try {
+            entry = validate(plan);
+        } finally {
+            PhaseTimings.stop(Phase.CHANNEL, start);
+        }
+        if (Objects.isNull(entry)) {
+            return call.proceed();
+        }
+        // ocupamos un lugar en el compartimento de concurrencia del canal antes de
+        // consumir el limite de peticiones, un rechazo por saturacion no gasta tokens
+        ChannelBulkhead bulkhead = entry.getBulkhead();
+        Integer maxConcurrencia = entry.getEntity().getMaxConcurrencia();
+        int limit = Objects.nonNull(maxConcurrencia) ? maxConcurrencia : defaultMaxConcurrent;
+        if (!bulkhead.tryAcquire(limit)) {
+            LOGGER.warn("El canal:{} alcanzo su limite de {} peticiones en ejecucion", entry.getEntity().getCanal(),
+                    limit);
+            throw new MessageWithOutTraceException(ConstMessageCode.CANAL_SATURADO, ConstErrorCode.CANAL_SATURADO);
+        }
+        try {
+            validateRateLimit(entry);
+            return call.proceed();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Resuelve el canal del header de la peticion actual y valida acceso y
+     * horario de servicio segun el plan del metodo
+     * 
+     * @param plan
+     *            plan de validacion del metodo
+     * @return canal encontrado, null si no existe
+     */
+    private ChannelEntry validate(AdvicePlan plan) {
+        HttpServletRequest request = RequestUtils.getCurrentHttpRequest();
+        Objects.requireNonNull(request, "Error al obtener el request actual de la peticion.");
+        String header = request.getHeader(ConstCommons.XCHANNEL);
+        LOGGER.debug("header {}:{}", ConstCommons.XCHANNEL, header);
+        // buscamos el canal una sola vez en el indice en memoria
+        ChannelEntry entry = channelsLookup.findByCanal(header);
+
+        // validamos si tiene acceso
+        if (plan.isValidateChannel()) {
+            validateAccess(entry, header);
+        }
+        // validamos el horario de servicio
+        if (plan.isValidateHours()) {
+            validateHoursOfService(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Valida el acceso y el horario de servicio del canal de la peticion sin
+     * consumir el limite de peticiones ni ocupar lugar en el compartimento de
+     * concurrencia, se usa para rechazar la peticion antes de leer su cuerpo
+     * 
+     * @param plan
+     *            plan de validacion del metodo
+     * @param request
+     *            peticion
+     */
+    public void precheck(AdvicePlan plan, HttpServletRequest request) {
+        String header = request.getHeader(ConstCommons.XCHANNEL);
+        ChannelEntry entry = channelsLookup.findByCanal(header);
+        if (plan.isValidateChannel()) {
+            validateAccess(entry, header);
+        }
+        if (plan.isValidateHours()) {
+            validateHoursOfService(entry);
+        }
+    }
+
+    /**
+     * Valida que el canal exista y se encuentre activo
+     * 
+     * @param entry
+     *            canal encontrado, null si no existe
+     * @param header
+     *            canal informado en el header
+     */
+    private static void validateAccess(ChannelEntry entry, String header) {
+        if (Objects.isNull(entry)) {
+            LOGGER.error("Acceso denegado header {}:{}", ConstCommons.XCHANNEL, header);
+            throw new MessageWithOutTraceException(ConstMessageCode.ACCESO_DENEGADO_CANAL,
+                    ConstErrorCode.ACCESO_DENEGADO_CANAL);
+        }
+        ChannelsEntity channel = entry.getEntity();
+        if (!channel.isActivo()) {
+            LOGGER.warn("El canal tiene desactivado el acceso, se encuentra fuera de servicio");
+            throw new MessageWithOutTraceException(ConstMessageCode.ACCESO_CANAL_FUERA_SERVICIO,
+                    ConstErrorCode.ACCESO_CANAL_FUERA_SERVICIO);
+        }
+        LOGGER.debug("Se permite el acceso al canal:{} de {}", channel.getCanal(), channel.getNombre());
+    }
+
+    /**
+     * Valida con el estado que mantiene el programador de horarios que el canal se
+     * encuentre dentro de su horario de servicio
+     * 
+     * @param entry
+     *            canal encontrado, null si no existe
+     */
+    private static void validateHoursOfService(ChannelEntry entry) {
+        if (Objects.nonNull(entry) && !entry.getState().isOpen()) {
+            entry.getState().recordRejection(System.currentTimeMillis());
+            LOGGER.debug("El canal se encuentra fuera de servicio, horario habilitado:{}",
+                    entry.getEntity().getHorarioServicio());
+            throw new MessageWithOutTraceException(ConstMessageCode.ACCESO_CANAL_FUERA_SERVICIO,
+                    ConstErrorCode.ACCESO_CANAL_FUERA_SERVICIO);
+        }
+        LOGGER.debug("El canal se encuentra dentro del horario de servicio");
+    }
+
+    /**
+     * Consume un token del limite de peticiones por segundo del canal, si el
+     * canal excede su limite se rechaza la peticion antes de ejecutar el
+     * servicio, se invoca ya con lugar en el compartimento de concurrencia
+     * 
+     * @param entry
+     *            canal encontrado, null si no existe
+     */
+    private static void validateRateLimit(ChannelEntry entry) {
+        if (Objects.nonNull(entry) && !entry.getRateLimiter().tryAcquire()) {
+            LOGGER.warn("El canal:{} excede su limite de {} peticiones por segundo", entry.getEntity().getCanal(),
+                    entry.getRateLimiter().getRate());
+            throw new MessageWithOutTraceException(ConstMessageCode.TASA_EXCEDIDA_CANAL,
+                    ConstErrorCode.TASA_EXCEDIDA_CANAL);
+        }
+    }
+}
@@ -18,6 +18,14 @@ public final class ConstErrorCode {
      * acceso denegado al canal
      */
     public static final String ACCESO_CANAL_FUERA_SERVICIO = "MSCS04";
+    /**
+     * tasa de peticiones del canal excedida
+     */
+    public static final String TASA_EXCEDIDA_CANAL = "MSCS05";
+    /**
+     * canal saturado de peticiones en ejecucion
+     */
+    public static final String CANAL_SATURADO = "MSCS06";
     /**
      * session expirada
      */
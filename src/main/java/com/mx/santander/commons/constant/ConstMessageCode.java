@@ -31,6 +31,14 @@ public final class ConstMessageCode {
      * fuera de servicio
      */
     public static final int ACCESO_CANAL_FUERA_SERVICIO = -2001;
+    /**
+     * tasa de peticiones del canal excedida
+     */
+    public static final int TASA_EXCEDIDA_CANAL = -2002;
+    /**
+     * canal saturado de peticiones en ejecucion
+     */
+    public static final int CANAL_SATURADO = -2003;
 
     /**
      * Constructor vacio por default para cumplir con la especificacion y
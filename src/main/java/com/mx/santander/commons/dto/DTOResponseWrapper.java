@@ -0,0 +1,162 @@
+package com.mx.santander.commons.dto;
+
+import static java.util.Objects.isNull;
+
+import java.util.Arrays;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+
+import com.mx.santander.commons.model.dto.RequestTO;
+import com.mx.santander.commons.model.dto.ResponseTO;
+import com.mx.santander.commons.model.dto.ResponseTOWrapper;
+import com.mx.santander.commons.model.dto.ResponseTOWrapper.ResponseMessageTO;
+import com.mx.santander.commons.timer.phase.Phase;
+import com.mx.santander.commons.timer.phase.PhaseTimings;
+
+/**
+ * Da el formato de respuesta establecido para GoPay a las respuestas que
+ * implementan {@link ResponseTO} envolviendolas en {@link ResponseTOWrapper}, lo
+ * usan tanto el aspecto de DTO como el interceptor de commons
+ * 
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class DTOResponseWrapper {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(DTOResponseWrapper.class);
+    /**
+     * entonro de ejecucion
+     */
+    @Autowired
+    private Environment env;
+    /**
+     * codigo generico de exito
+     */
+    @Value("${com.mx.santander.commons.message.generic.success.messageCode:0}")
+    private int genericSuccessMessageCode;
+    /**
+     * response de exito
+     */
+    private ResponseMessageTO message;
+    /**
+     * prefix para los mensajes en la propiedades
+     */
+    @Value("${com.mx.santander.commons.message.prefix:message_}")
+    private String messagePrefix;
+    /**
+     * separador de los titulos y mensajes
+     */
+    @Value("${com.mx.santander.commons.message.split:\\|}")
+    private String messageSplit;
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     * 
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public DTOResponseWrapper() {
+        LOGGER.info("Inicia formato de respuestas");
+    }
+
+    /**
+     * si esta en modo trace imprime el request de la peticion
+     * 
+     * @param args
+     *            argumentos del servicio
+     */
+    public void logRequest(Object[] args) {
+        if (LOGGER.isTraceEnabled()) {
+            Arrays.asList(args).stream().filter(arg -> arg instanceof RequestTO).findFirst()
+                    .ifPresent(arg -> LOGGER.trace("Request:{}", ((RequestTO) arg).toJsonString()));
+        }
+    }
+
+    /**
+     * se valida que la respuesta implemente ResponseTO para asi poder envolverlo en
+     * ResponseTOWrapper
+     * 
+     * @param response
+     *            respuesta del servicio
+     * @return {@link ResponseTOWrapper} o la misma respuesta si no implementa
+     *         {@link ResponseTO}
+     */
+    public Object wrap(Object response) {
+        if (response instanceof ResponseTO) {
+            long start = PhaseTimings.start();
+            ResponseTOWrapper responseTOWrapper = new ResponseTOWrapper(genericSuccessMessageCode, message,
+                    (ResponseTO) response);
+            LOGGER.trace("Response:{}", responseTOWrapper);
+            PhaseTimings.stop(Phase.DTO, start);
+            return responseTOWrapper;
+        }
+        return response;
+    }
+
+    /**
+     * indica si la respuesta es la de exito por default armada por
+     * {@link #wrap(Object)}, solo esas respuestas comparten el mismo mensaje y se
+     * pueden serializar con el encabezado ya codificado
+     * 
+     * @param wrapper
+     *            respuesta envuelta
+     * @return true si es la respuesta de exito sin cambios
+     */
+    public boolean isSuccess(ResponseTOWrapper wrapper) {
+        return wrapper.getMensaje() == message && isNull(wrapper.getMensajeDev())
+                && Integer.valueOf(genericSuccessMessageCode).equals(wrapper.getCodigoDeOperacion());
+    }
+
+    /**
+     * codigo generico de exito
+     * 
+     * @return codigo de operacion
+     */
+    public int getGenericSuccessMessageCode() {
+        return genericSuccessMessageCode;
+    }
+
+    /**
+     * mensaje de exito compartido por todas las respuestas
+     * 
+     * @return {@link ResponseMessageTO}
+     */
+    public ResponseMessageTO getMessage() {
+        return message;
+    }
+
+    /**
+     * Inicializa el formato para configurar el formato de la respuestas extitosa
+     * por default, con codigo de operacion 0, todas las respuestas que implenetan
+     * {@link ResponseTO} se agregan a {@link ResponseTOWrapper} para asi dat el
+     * formato establecido para el poryecto de GoPay
+     */
+    @PostConstruct
+    private void initMessage() {
+        LOGGER.debug("Se incializa el mensaje de exito.");
+        // validamos el mensaje
+        String mensaje = env.getProperty(messagePrefix + genericSuccessMessageCode);
+        if (isNull(mensaje) || mensaje.isEmpty()) {
+            LOGGER.warn("El Codigo de mensaje:{} no existe en las propiedades.",
+                    messagePrefix + genericSuccessMessageCode);
+            message = new ResponseTOWrapper.ResponseMessageTO("Atenci\u00F3n", "Operaci\u00F3n Exitosa.", null);
+            return;
+        }
+        LOGGER.debug("Mensaje en properties:{}", mensaje);
+        String[] msgSuccess = mensaje.split(messageSplit);
+        // validamos si viene titulo y mensaje, o solo titulo
+        if (mensaje.length() > 1) {
+            message = new ResponseTOWrapper.ResponseMessageTO(msgSuccess[0], msgSuccess[1], null);
+            return;
+        }
+        message = new ResponseTOWrapper.ResponseMessageTO("Atenci\u00F3n", msgSuccess[0], null);
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.mx.santander.commons.dto.converter;
+
+import static java.util.Objects.isNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mx.santander.commons.dto.DTOResponseWrapper;
+import com.mx.santander.commons.model.dto.ResponseTOWrapper;
+import com.mx.santander.commons.utils.JacksonUtils;
+
+/**
+ * Convertidor de {@link ResponseTOWrapper} que escribe la respuesta de exito
+ * directo al flujo de salida, el codigo de operacion y el mensaje de exito son
+ * iguales en todas las respuestas por lo que se codifican una sola vez al
+ * iniciar y en cada peticion solo se escriben el folio y el {@code data}, spring
+ * boot lo registra antes del convertidor de Jackson por ser un bean
+ * {@link org.springframework.http.converter.HttpMessageConverter}, las
+ * respuestas de error o modificadas se serializan completas con el mismo
+ * {@link ObjectMapper}, el ahorro esta en el serializado, el
+ * {@link ResponseTOWrapper} se sigue armando en cada respuesta porque solo
+ * referencia el mensaje compartido, el tiempo de respuesta, el vigilante de
+ * peticiones lentas y la bitacora de accesos leen su folio y los servicios
+ * pueden depender de su tipo
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class EnvelopeHttpMessageConverter extends AbstractHttpMessageConverter<ResponseTOWrapper> {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnvelopeHttpMessageConverter.class);
+    /**
+     * separador entre el folio y la respuesta del servicio
+     */
+    private static final byte[] DATA = "\",\"data\":".getBytes(StandardCharsets.UTF_8);
+    /**
+     * cierre de la respuesta
+     */
+    private static final int END = '}';
+    /**
+     * formato de respuesta de exito
+     */
+    @Autowired(required = false)
+    private DTOResponseWrapper dtoResponseWrapper;
+    /**
+     * serializador de spring mvc
+     */
+    @Autowired(required = false)
+    private ObjectMapper objectMapper;
+    /**
+     * inicio de la respuesta de exito ya codificado hasta la apertura del folio
+     */
+    private byte[] prefix;
+
+    /**
+     * Constructor del convertidor para JSON en UTF-8
+     */
+    public EnvelopeHttpMessageConverter() {
+        super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        LOGGER.info("Inicia serializado en flujo de respuestas");
+    }
+
+    /**
+     * Codifica el inicio de la respuesta de exito con el mensaje configurado, si
+     * no hay formato de respuesta o la salida tiene formato con sangria todas las
+     * respuestas se serializan completas
+     *
+     * @throws IOException
+     *             si no se puede serializar el mensaje de exito
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (isNull(objectMapper)) {
+            objectMapper = JacksonUtils.JACKSON;
+        }
+        if (isNull(dtoResponseWrapper) || objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+            LOGGER.warn("No se codifica la respuesta de exito, las respuestas se serializan completas");
+            return;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(("{\"codigoDeOperacion\":" + dtoResponseWrapper.getGenericSuccessMessageCode() + ",\"mensaje\":")
+                .getBytes(StandardCharsets.UTF_8));
+        out.write(objectMapper.writeValueAsBytes(dtoResponseWrapper.getMessage()));
+        out.write(",\"folioDeOperacion\":\"".getBytes(StandardCharsets.UTF_8));
+        prefix = out.toByteArray();
+        LOGGER.debug("Inicio de respuesta de exito:{}", new String(prefix, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ResponseTOWrapper.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ResponseTOWrapper readInternal(Class<? extends ResponseTOWrapper> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        throw new HttpMessageNotReadableException("El convertidor de respuestas solo escribe");
+    }
+
+    @Override
+    protected void writeInternal(ResponseTOWrapper wrapper, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(body, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (isNull(prefix) || isNull(wrapper.getFolioDeOperacion()) || !dtoResponseWrapper.isSuccess(wrapper)) {
+                objectMapper.writeValue(generator, wrapper);
+                return;
+            }
+            body.write(prefix);
+            body.write(JsonStringEncoder.getInstance().quoteAsUTF8(wrapper.getFolioDeOperacion()));
+            body.write(DATA);
+            objectMapper.writeValue(generator, wrapper.getData());
+            generator.flush();
+            body.write(END);
+        } catch (IOException e) {
+            throw new HttpMessageNotWritableException("No se pudo escribir la respuesta: " + e.getMessage(), e);
+        }
+    }
+}
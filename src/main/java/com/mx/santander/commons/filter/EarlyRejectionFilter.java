@@ -0,0 +1,174 @@
+package com.mx.santander.commons.filter;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mx.santander.commons.advice.AdvicePlan;
+import com.mx.santander.commons.advice.AdvicePlanCache;
+import com.mx.santander.commons.channel.security.ChannelGuard;
+import com.mx.santander.commons.exceptions.HandlerExceptions;
+import com.mx.santander.commons.messages.MessageWithOutTraceException;
+import com.mx.santander.commons.model.dto.ResponseTOWrapper;
+import com.mx.santander.commons.session.security.SessionGuard;
+import com.mx.santander.commons.utils.JacksonUtils;
+
+/**
+ * Filtro que rechaza las peticiones con sesion expirada, canal desconocido o
+ * fuera de horario antes de que Spring MVC lea y deserialice el cuerpo de la
+ * peticion, resuelve el metodo del controller con
+ * {@link RequestMappingHandlerMapping} para aplicar el mismo {@link AdvicePlan}
+ * que los aspectos y escribe directamente el {@link ResponseTOWrapper} de error
+ * que generaria {@link HandlerExceptions}, las peticiones que pasan el filtro se
+ * validan de nuevo en los aspectos, donde ademas se aplican los roles, el
+ * limite de peticiones y el compartimento de concurrencia del canal
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class EarlyRejectionFilter extends OncePerRequestFilter {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(EarlyRejectionFilter.class);
+    /**
+     * orden del filtro, despues de {@link SessionRepositoryFilter} y antes de leer
+     * el cuerpo de la peticion
+     */
+    public static final int DEFAULT_ORDER = SessionRepositoryFilter.DEFAULT_ORDER + 50;
+    /**
+     * resolucion del metodo del controller de la peticion
+     */
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+    /**
+     * planes de validacion por metodo
+     */
+    @Autowired
+    private AdvicePlanCache advicePlans;
+    /**
+     * manejador de errores que genera el formato de respuesta
+     */
+    @Autowired
+    private HandlerExceptions handlerExceptions;
+    /**
+     * validaciones de sesion
+     */
+    @Autowired(required = false)
+    private SessionGuard sessionGuard;
+    /**
+     * validaciones de acceso por canal
+     */
+    @Autowired(required = false)
+    private ChannelGuard channelGuard;
+    /**
+     * serializador de spring mvc, las respuestas de error tienen el mismo
+     * formato que las que escribe spring mvc
+     */
+    @Autowired(required = false)
+    private ObjectMapper objectMapper;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public EarlyRejectionFilter() {
+        LOGGER.info("Inicia filtro de rechazo temprano de peticiones");
+    }
+
+    /**
+     * si no existe el serializador de spring mvc se usa el de commons
+     */
+    @PostConstruct
+    public void initObjectMapper() {
+        if (Objects.isNull(objectMapper)) {
+            objectMapper = JacksonUtils.JACKSON;
+        }
+    }
+
+    /**
+     * Valida la peticion segun el plan del metodo que la atiende, si no pasa las
+     * validaciones responde el error sin continuar la cadena de filtros
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdvicePlan plan = resolvePlan(request);
+        if (Objects.nonNull(plan) && plan.isInScope()) {
+            try {
+                if (Objects.nonNull(sessionGuard) && plan.isValidateSession()) {
+                    sessionGuard.validateSession(request);
+                }
+                if (Objects.nonNull(channelGuard) && plan.isGuardChannel()) {
+                    channelGuard.precheck(plan, request);
+                }
+            } catch (MessageWithOutTraceException ex) {
+                LOGGER.debug("Se rechaza la peticion:{} antes de leer el cuerpo", request.getRequestURI());
+                writeError(response, handlerExceptions.exceptionHandler(ex));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * obtiene el plan del metodo del controller que atiende la peticion
+     *
+     * @param request
+     *            peticion
+     * @return {@link AdvicePlan} o null si la peticion no la atiende un metodo de
+     *         controller
+     */
+    private AdvicePlan resolvePlan(HttpServletRequest request) {
+        HandlerExecutionChain chain;
+        try {
+            chain = handlerMapping.getHandler(request);
+        } catch (Exception e) {
+            LOGGER.debug("No fue posible resolver el metodo de la peticion:{}", request.getRequestURI(), e);
+            return null;
+        }
+        if (Objects.isNull(chain) || !(chain.getHandler() instanceof HandlerMethod)) {
+            return null;
+        }
+        HandlerMethod handler = (HandlerMethod) chain.getHandler();
+        return advicePlans.get(handler.getMethod(), handler.getBeanType());
+    }
+
+    /**
+     * escribe la respuesta de error
+     *
+     * @param response
+     *            respuesta http
+     * @param error
+     *            respuesta generada por {@link HandlerExceptions}
+     * @throws IOException
+     *             error al escribir la respuesta
+     */
+    private void writeError(HttpServletResponse response, ResponseEntity<ResponseTOWrapper> error)
+            throws IOException {
+        response.setStatus(error.getStatusCodeValue());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error.getBody());
+    }
+}
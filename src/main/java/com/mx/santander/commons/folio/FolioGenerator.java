@@ -0,0 +1,20 @@
+package com.mx.santander.commons.folio;
+
+/**
+ * Genera el folio de operacion de las respuestas de los servicios, las
+ * implementaciones se eligen con la propiedad
+ * {@code com.mx.santander.commons.folio.generator} y deben ser seguras para
+ * invocarse desde varios hilos sin bloqueos
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+@FunctionalInterface
+public interface FolioGenerator {
+    /**
+     * siguiente folio de operacion
+     *
+     * @return folio
+     */
+    String next();
+}
@@ -0,0 +1,44 @@
+package com.mx.santander.commons.folio;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Publica en {@link FolioGenerators} el {@link FolioGenerator} del contexto una
+ * vez inicializado y lo retira al cerrar el contexto
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class FolioGeneratorRegistrar {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(FolioGeneratorRegistrar.class);
+    /**
+     * generador de folios configurado, sin generador se usa el default
+     */
+    @Autowired(required = false)
+    private FolioGenerator folioGenerator;
+
+    /**
+     * Publica el generador de folios
+     */
+    @PostConstruct
+    public void install() {
+        FolioGenerators.install(folioGenerator);
+        LOGGER.info("Folios de operacion con:{}", FolioGenerators.current().getClass().getSimpleName());
+    }
+
+    /**
+     * Regresa al generador por default
+     */
+    @PreDestroy
+    public void uninstall() {
+        FolioGenerators.install(null);
+    }
+}
@@ -0,0 +1,63 @@
+package com.mx.santander.commons.folio;
+
+import java.util.Objects;
+
+/**
+ * Mantiene el {@link FolioGenerator} que usa
+ * {@link com.mx.santander.commons.model.dto.ResponseTOWrapper} al construirse,
+ * los wrappers se crean con new fuera del contexto de spring por lo que el
+ * generador configurado se publica aqui al iniciar, mientras no haya uno se usa
+ * {@link UuidFolioGenerator}
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class FolioGenerators {
+    /**
+     * generador por default
+     */
+    private static final FolioGenerator DEFAULT = new UuidFolioGenerator();
+    /**
+     * generador vigente
+     */
+    private static volatile FolioGenerator generator = DEFAULT;
+
+    /**
+     * Constructor vacio y privado ya que no se permiten instancias del mismo solo
+     * acceso a los metodos estaticos
+     */
+    private FolioGenerators() {
+        /**
+         * Constructor vacio y privado ya que no se permiten instancias del mismo solo
+         * acceso a los metodos estaticos
+         */
+    }
+
+    /**
+     * siguiente folio del generador vigente
+     *
+     * @return folio
+     */
+    public static String next() {
+        return generator.next();
+    }
+
+    /**
+     * generador vigente
+     *
+     * @return {@link FolioGenerator}
+     */
+    public static FolioGenerator current() {
+        return generator;
+    }
+
+    /**
+     * publica el generador de folios, con null se regresa al default
+     *
+     * @param folioGenerator
+     *            generador de folios
+     */
+    public static void install(FolioGenerator folioGenerator) {
+        generator = Objects.isNull(folioGenerator) ? DEFAULT : folioGenerator;
+    }
+}
@@ -0,0 +1,136 @@
+package com.mx.santander.commons.folio;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Folio de operacion ordenado por tiempo al estilo Snowflake, en 64 bits se
+ * guardan los milisegundos desde {@link #EPOCH}, el id del nodo y un
+ * consecutivo dentro del milisegundo, el tiempo y el consecutivo se avanzan
+ * juntos con un compare and set por lo que no hay bloqueos, si el reloj
+ * retrocede o se agota el consecutivo se sigue contando sobre el ultimo
+ * milisegundo usado en lugar de esperar, el folio se escribe en 16 caracteres
+ * hexadecimales para que el orden de las cadenas sea el mismo que el de los
+ * folios, dos instancias con el mismo id de nodo pueden repetir folios por lo
+ * que el id se informa con node-id o se toma de los digitos finales de
+ * node-id-source, por ejemplo el ordinal del pod de un StatefulSet en
+ * ${HOSTNAME}, si no se informa ninguno la aplicacion no arranca
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class SnowflakeFolioGenerator implements FolioGenerator {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnowflakeFolioGenerator.class);
+    /**
+     * 2020-01-01T00:00:00Z en milisegundos, los 41 bits de tiempo alcanzan
+     * hasta 2089
+     */
+    private static final long EPOCH = 1_577_836_800_000L;
+    /**
+     * bits del id del nodo
+     */
+    private static final int NODE_BITS = 10;
+    /**
+     * bits del consecutivo
+     */
+    private static final int SEQUENCE_BITS = 12;
+    /**
+     * id de nodo maximo
+     */
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    /**
+     * mascara del consecutivo
+     */
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    /**
+     * digitos hexadecimales
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    /**
+     * id del nodo, si es negativo se toma de {@link #nodeIdSource}
+     */
+    @Value("${com.mx.santander.commons.folio.node-id:-1}")
+    private long nodeId;
+    /**
+     * valor unico por instancia cuyos digitos finales son el id del nodo
+     */
+    @Value("${com.mx.santander.commons.folio.node-id-source:}")
+    private String nodeIdSource;
+    /**
+     * ultimo milisegundo y consecutivo usados
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Valida el id del nodo o lo toma de {@link #nodeIdSource}, sin id de nodo
+     * falla el arranque para no repetir folios entre instancias
+     */
+    @PostConstruct
+    public void init() {
+        if (nodeId < 0) {
+            nodeId = sourceNodeId(nodeIdSource);
+        }
+        if (nodeId > MAX_NODE) {
+            throw new IllegalStateException("El id de nodo de folios debe estar entre 0 y " + MAX_NODE);
+        }
+        LOGGER.info("Folios Snowflake con id de nodo:{}", nodeId);
+    }
+
+    @Override
+    public String next() {
+        long now = System.currentTimeMillis() - EPOCH;
+        long prev;
+        long next;
+        do {
+            prev = state.get();
+            // el desborde del consecutivo se suma al milisegundo
+            next = now > prev >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : prev + 1;
+        } while (!state.compareAndSet(prev, next));
+        long id = (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeId << SEQUENCE_BITS
+                | next & SEQUENCE_MASK;
+        char[] folio = new char[16];
+        for (int i = folio.length - 1; i >= 0; i--) {
+            folio[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(folio);
+    }
+
+    /**
+     * id del nodo a partir de los digitos finales del valor unico de la
+     * instancia, por ejemplo 3 de gopay-commons-3
+     *
+     * @param source
+     *            valor unico de la instancia
+     * @return id de nodo
+     */
+    private static long sourceNodeId(String source) {
+        if (Objects.isNull(source) || source.trim().isEmpty()) {
+            throw new IllegalStateException("Los folios snowflake requieren com.mx.santander.commons.folio.node-id "
+                    + "o com.mx.santander.commons.folio.node-id-source unico por instancia");
+        }
+        String value = source.trim();
+        int start = value.length();
+        while (start > 0 && Character.isDigit(value.charAt(start - 1))) {
+            start--;
+        }
+        // mas de 4 digitos ya excede el id de nodo maximo
+        if (start == value.length() || value.length() - start > 4) {
+            throw new IllegalStateException("El valor:" + value
+                    + " de com.mx.santander.commons.folio.node-id-source no termina en un id de nodo de 0 a "
+                    + MAX_NODE);
+        }
+        long id = Long.parseLong(value.substring(start));
+        LOGGER.info("Id de nodo de folios:{} tomado de:{}", id, value);
+        return id;
+    }
+}
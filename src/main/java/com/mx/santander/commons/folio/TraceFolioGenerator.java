@@ -0,0 +1,38 @@
+package com.mx.santander.commons.folio;
+
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import brave.Span;
+import brave.Tracer;
+
+/**
+ * Folio de operacion igual al trace id de sleuth de la peticion, el folio de la
+ * respuesta se puede buscar directo en las trazas y no se genera ningun valor
+ * nuevo, las respuestas de una misma traza comparten folio, sin traza activa se
+ * usa {@link UuidFolioGenerator}
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class TraceFolioGenerator implements FolioGenerator {
+    /**
+     * folios cuando no hay traza activa
+     */
+    private static final FolioGenerator FALLBACK = new UuidFolioGenerator();
+    /**
+     * trazador de sleuth
+     */
+    @Autowired(required = false)
+    private Tracer tracer;
+
+    @Override
+    public String next() {
+        Span span = Objects.isNull(tracer) ? null : tracer.currentSpan();
+        if (Objects.isNull(span)) {
+            return FALLBACK.next();
+        }
+        return span.context().traceIdString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.mx.santander.commons.folio;
+
+import java.util.UUID;
+
+/**
+ * Folio de operacion con {@link UUID#randomUUID()}, es el formato original de
+ * los folios y se usa por default, cada folio pasa por el {@link java.security.SecureRandom}
+ * compartido de la JVM
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class UuidFolioGenerator implements FolioGenerator {
+
+    @Override
+    public String next() {
+        return UUID.randomUUID().toString();
+    }
+}
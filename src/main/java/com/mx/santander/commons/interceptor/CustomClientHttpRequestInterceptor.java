@@ -17,6 +17,8 @@ import org.springframework.util.StreamUtils;
 
 import com.mx.santander.commons.exceptions.PropagationMessageException;
 import com.mx.santander.commons.model.dto.ResponseTOWrapper;
+import com.mx.santander.commons.timer.phase.Phase;
+import com.mx.santander.commons.timer.phase.PhaseTimings;
 import com.mx.santander.commons.utils.JacksonUtils;
 import com.mx.santander.commons.utils.RequestUtils;
 
@@ -78,8 +80,14 @@ public class CustomClientHttpRequestInterceptor implements ClientHttpRequestInte
             LOGGER.trace(log.toString());
         }
         long timeStart = System.currentTimeMillis();
-        ClientHttpResponse response = execution.execute(request, body);
-        validateResponse(response, urlService);
+        long phaseStart = PhaseTimings.start();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+            validateResponse(response, urlService);
+        } finally {
+            PhaseTimings.stop(Phase.OUTBOUND, phaseStart);
+        }
         // se toma el tiempo una vez ya pudimos obtener la respuesta del servicio
         long timeEnd = System.currentTimeMillis();
         LOGGER.info("\nEl servicio:{} \nTermino en:{}ms\n\n", urlService, timeEnd - timeStart);
@@ -2,12 +2,12 @@ package com.mx.santander.commons.model.dto;
 
 import java.io.Serializable;
 import java.util.Objects;
-import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.mx.santander.commons.folio.FolioGenerators;
 import com.mx.santander.commons.utils.JacksonUtils;
 
 import lombok.AccessLevel;
@@ -112,7 +112,7 @@ public class ResponseTOWrapper implements ResponseTO, Serializable {
     public ResponseTOWrapper(Integer codigoDeOperacion, ResponseMessageTO message) {
         this.codigoDeOperacion = codigoDeOperacion;
         this.mensaje = message;
-        folioDeOperacion = UUID.randomUUID().toString();
+        folioDeOperacion = FolioGenerators.next();
     }
 
     /**
@@ -129,7 +129,7 @@ public class ResponseTOWrapper implements ResponseTO, Serializable {
         this.codigoDeOperacion = codigoDeOperacion;
         this.mensaje = message;
         this.response = data;
-        folioDeOperacion = UUID.randomUUID().toString();
+        folioDeOperacion = FolioGenerators.next();
     }
 
     public ResponseTO getData() {
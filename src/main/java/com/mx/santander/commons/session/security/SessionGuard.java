@@ -0,0 +1,154 @@
+package com.mx.santander.commons.session.security;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Date;
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mx.santander.commons.constant.ConstCommons;
+import com.mx.santander.commons.constant.ConstErrorCode;
+import com.mx.santander.commons.constant.ConstMessageCode;
+import com.mx.santander.commons.messages.MessageWithOutTraceException;
+import com.mx.santander.commons.model.session.entity.PrincipalUser;
+import com.mx.santander.commons.session.anotation.AuthorizationRole;
+import com.mx.santander.commons.timer.phase.Phase;
+import com.mx.santander.commons.timer.phase.PhaseTimings;
+import com.mx.santander.commons.utils.RequestUtils;
+
+/**
+ * Validaciones de sesion y de roles de una peticion, valida que exista una
+ * sesion activa en redis y que el usuario con sesion cuente con alguno de los
+ * roles de {@link AuthorizationRole}, la usan tanto los aspectos de sesion como
+ * el interceptor de commons
+ * 
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class SessionGuard {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionGuard.class);
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     * 
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public SessionGuard() {
+        LOGGER.info("Inicia validaciones de sesion");
+    }
+
+    /**
+     * Valida que exista una sesion activa con informacion del usuario y actualiza
+     * su hora de ultimo acceso
+     */
+    public void validate() {
+        long start = PhaseTimings.start();
+        try {
+            // validamos la session
+            validateSession();
+            HttpSession session = requireNonNull(RequestUtils.getCurrentHttpRequest()).getSession(false);
+            Objects.requireNonNull(session, "Error al obtener la sesion de la peticion actual");
+            PrincipalUser principal = (PrincipalUser) session.getAttribute(PrincipalUser.ATTRIBUTE_SESSION_NAME);
+            Objects.requireNonNull(principal, "No existe informacion del usuario en la sesion");
+            LOGGER.debug("La sesion es valida para proceder con la peticion, hora de ultimo acceso:{}",
+                    principal.getLastAccess());
+            principal.setLastAccess(new Date());
+            session.setAttribute(PrincipalUser.ATTRIBUTE_SESSION_NAME, principal);
+        } finally {
+            PhaseTimings.stop(Phase.SESSION, start);
+        }
+    }
+
+    /**
+     * metodo para validar si la sesion es valida
+     */
+    private void validateSession() {
+        validateSession(requireNonNull(RequestUtils.getCurrentHttpRequest()));
+    }
+
+    /**
+     * metodo para validar si la sesion de la peticion es valida, no modifica la
+     * sesion por lo que se puede usar antes de que la peticion llegue al servicio
+     * 
+     * @param request
+     *            peticion
+     */
+    public void validateSession(HttpServletRequest request) {
+        LOGGER.debug("Entra al metodo para validar si ya existe una session");
+        // obtenemos el token de session
+        String header = request.getHeader(ConstCommons.SESSION_HEADER);
+        LOGGER.debug("Entra al aspecto para validar la sesion, x-auth-token :{}", header);
+        // validamos si existe sesion
+        if (isNull(request.getSession(false))) {
+            // si no existe se manda mensaje de sesion expirada
+            LOGGER.debug("No existe sesion activa para la peticion , x-auth-token:{}", header);
+            throw new MessageWithOutTraceException(ConstMessageCode.SESSION_EXPIRADA, ConstErrorCode.SESSION_EXPIRADA);
+        }
+    }
+
+    /**
+     * metodo para validar si el usuario con sesion, cuenta con el rol para consumir
+     * el servicio
+     * 
+     * @param roles
+     *            roles permitidos
+     */
+    public void validateRoleAccess(String[] roles) {
+        long start = PhaseTimings.start();
+        try {
+            checkRoles(roles);
+        } finally {
+            PhaseTimings.stop(Phase.ROLES, start);
+        }
+    }
+
+    /**
+     * valida que el usuario con sesion cuente con alguno de los roles
+     * 
+     * @param roles
+     *            roles permitidos
+     */
+    private static void checkRoles(String[] roles) {
+        LOGGER.debug("Entra al metodo para validar si el usuario tiene el rol necesario para acceder al servicio");
+        if (roles.length == 0) {
+            LOGGER.debug(
+                    "La anotacion @AuthorizationRole no cuenta con un rol especifico por lo cual se deja acceder al servicio sin validacion de roles");
+            return;
+        }
+        // obtenemos la sesson actual
+        HttpSession session = requireNonNull(RequestUtils.getCurrentHttpRequest()).getSession(false);
+        // validamos si existe el usuario en la sesion
+        if (Objects.isNull(session.getAttribute(PrincipalUser.ATTRIBUTE_SESSION_NAME))) {
+            LOGGER.warn("No hay informacion del usuario en la sesion para validar el rol de acceso");
+            return;
+        }
+        PrincipalUser user = (PrincipalUser) session.getAttribute(PrincipalUser.ATTRIBUTE_SESSION_NAME);
+        if (user.getRoles().isEmpty()) {
+            LOGGER.warn("El usuario no tiene roles asignados");
+            throw new MessageWithOutTraceException(ConstMessageCode.SESSION_ROLE_NO_AUTORIZADO,
+                    ConstErrorCode.SESSION_ROLE_NO_AUTORIZADO);
+        }
+        // validamos los roles permitidos con los roles asigandos al usuario con session
+        for (String role : roles) {
+            if (user.getRoles().contains(role)) {
+                LOGGER.debug("El usuario cuenta con el rol necesario para acceder al servicio");
+                return;
+            }
+        }
+        // si llega a este punto significa que el usuario no tiene el rol necesario para
+        // acceder al servicio
+        LOGGER.debug("El usuario no cuenta con el rol necesario para acceder al servicio");
+        throw new MessageWithOutTraceException(ConstMessageCode.SESSION_ROLE_NO_AUTORIZADO,
+                ConstErrorCode.SESSION_ROLE_NO_AUTORIZADO);
+    }
+}
@@ -0,0 +1,298 @@
+package com.mx.santander.commons.timer;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.mx.santander.commons.advice.AdvicePlan;
+import com.mx.santander.commons.advice.GuardedCall;
+import com.mx.santander.commons.constant.ConstCommons;
+import com.mx.santander.commons.model.dto.ResponseTOWrapper;
+import com.mx.santander.commons.timer.accesslog.AccessLogRecord;
+import com.mx.santander.commons.timer.accesslog.AccessLogWriter;
+import com.mx.santander.commons.timer.histogram.LatencyRegistry;
+import com.mx.santander.commons.timer.phase.Phase;
+import com.mx.santander.commons.timer.phase.PhaseTimings;
+import com.mx.santander.commons.timer.resource.ThreadResourceMeter;
+import com.mx.santander.commons.timer.watchdog.SlowRequestWatchdog;
+import com.mx.santander.commons.utils.RequestUtils;
+
+/**
+ * Mide los tiempos de respuesta de los servicios del microservicio, lo usan
+ * tanto el aspecto de tiempos como el interceptor de commons
+ * 
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ServiceTimer {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceTimer.class);
+    /**
+     * header con la duracion por fase de la peticion
+     */
+    private static final String SERVER_TIMING = "Server-Timing";
+    /**
+     * fases de la peticion
+     */
+    private static final Phase[] PHASES = Phase.values();
+    /**
+     * histogramas de latencia por endpoint
+     */
+    @Autowired(required = false)
+    private LatencyRegistry latencyRegistry;
+    /**
+     * bitacora de accesos asincrona
+     */
+    @Autowired(required = false)
+    private AccessLogWriter accessLog;
+    /**
+     * vigilante de peticiones lentas
+     */
+    @Autowired(required = false)
+    private SlowRequestWatchdog watchdog;
+    /**
+     * medicion de CPU y memoria asignada por hilo
+     */
+    @Autowired(required = false)
+    private ThreadResourceMeter resourceMeter;
+    /**
+     * true para escribir en log INFO el inicio y fin de cada servicio
+     */
+    @Value("${com.mx.santander.commons.service.timer.log:false}")
+    private boolean logEnabled;
+    /**
+     * true para registrar la duracion por fase de cada peticion
+     */
+    @Value("${com.mx.santander.commons.service.timer.phases.enable:false}")
+    private boolean phasesEnabled;
+    /**
+     * true para regresar la duracion por fase en el header Server-Timing
+     */
+    @Value("${com.mx.santander.commons.service.timer.phases.server-timing:false}")
+    private boolean serverTiming;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     * 
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public ServiceTimer() {
+        LOGGER.info("Inicia medicion de tiempos de respuestas");
+    }
+
+    /**
+     * Ejecuta el servicio midiendo su tiempo de respuesta en nanosegundos, la
+     * latencia se registra en el histograma del endpoint aun si el servicio
+     * termina con error
+     * 
+     * @param plan
+     *            plan de validacion del metodo
+     * @param call
+     *            invocacion del servicio
+     * @return respuesta del servicio
+     * @throws Throwable
+     *             exception
+     */
+    public Object time(AdvicePlan plan, GuardedCall call) throws Throwable {
+        LOGGER.debug("Se ejecuta medicion de tiempos de respuesta");
+        long timeStart = System.nanoTime();
+        /**
+         * Obtenemos el path invocado
+         */
+        String[] paths = plan.getPaths();
+        if (logEnabled) {
+            LOGGER.info("Inicia el servicio:{}", paths, "");
+        }
+        boolean measureResources = Objects.nonNull(resourceMeter) && Objects.nonNull(latencyRegistry)
+                && resourceMeter.isSupported();
+        long cpuStart = measureResources ? resourceMeter.cpuNanos() : 0L;
+        long allocatedStart = measureResources ? resourceMeter.allocatedBytes() : 0L;
+        SlowRequestWatchdog.Watch watch = Objects.nonNull(watchdog)
+                ? watchdog.start(endpoint(RequestUtils.getCurrentHttpRequest(), plan))
+                : null;
+        Object response = null;
+        Throwable failure = null;
+        // se activa justo antes del try para que el finally siempre lo termine, si
+        // quedara activo el hilo del pool ya no mediria las fases de sus peticiones
+        PhaseTimings phases = phasesEnabled ? PhaseTimings.begin() : null;
+        try {
+            response = call.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - timeStart;
+            if (Objects.nonNull(phases)) {
+                phases.end(nanos);
+            }
+            if (measureResources) {
+                recordResources(plan, resourceMeter.cpuNanos() - cpuStart,
+                        resourceMeter.allocatedBytes() - allocatedStart);
+            }
+            String folio = response instanceof ResponseTOWrapper
+                    ? ((ResponseTOWrapper) response).getFolioDeOperacion()
+                    : null;
+            if (Objects.nonNull(watch)) {
+                watchdog.stop(watch, folio);
+            }
+            record(plan, nanos, failure, folio);
+            if (Objects.nonNull(phases)) {
+                publish(plan, phases, nanos);
+            }
+        }
+        if (logEnabled) {
+            LOGGER.info("El servicio:{} termino en: {} ms", paths,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - timeStart));
+        }
+        return response;
+    }
+
+    /**
+     * registra la latencia en el histograma del metodo HTTP y el path resuelto de
+     * la peticion actual, si esta habilitada la bitacora de accesos y la peticion
+     * se muestrea tambien se encola su registro de acceso
+     * 
+     * @param plan
+     *            plan de validacion del metodo
+     * @param nanos
+     *            latencia en nanosegundos
+     * @param failure
+     *            error del servicio, null si termino bien
+     * @param folio
+     *            folio de operacion de la respuesta, null si no existe
+     */
+    private void record(AdvicePlan plan, long nanos, Throwable failure, String folio) {
+        boolean sampled = Objects.nonNull(accessLog) && accessLog.isSampled(nanos);
+        if (Objects.isNull(latencyRegistry) && !sampled) {
+            return;
+        }
+        HttpServletRequest request = RequestUtils.getCurrentHttpRequest();
+        String path = path(request, plan);
+        String httpMethod = httpMethod(request);
+        if (Objects.nonNull(latencyRegistry)) {
+            latencyRegistry.record(httpMethod, path, nanos);
+        }
+        if (sampled) {
+            accessLog.log(new AccessLogRecord(System.currentTimeMillis(), httpMethod, path,
+                    Objects.isNull(failure) ? "OK" : failure.getClass().getSimpleName(), nanos,
+                    accessLog.isSlow(nanos),
+                    Objects.nonNull(request) ? request.getHeader(ConstCommons.XCHANNEL) : null, folio));
+        }
+    }
+
+    /**
+     * registra el tiempo de CPU y los bytes asignados por la peticion en los
+     * histogramas de su endpoint
+     * 
+     * @param plan
+     *            plan de validacion del metodo
+     * @param cpuNanos
+     *            tiempo de CPU en nanosegundos
+     * @param allocatedBytes
+     *            bytes asignados
+     */
+    private void recordResources(AdvicePlan plan, long cpuNanos, long allocatedBytes) {
+        HttpServletRequest request = RequestUtils.getCurrentHttpRequest();
+        latencyRegistry.recordResources(httpMethod(request), path(request, plan), cpuNanos, allocatedBytes);
+    }
+
+    /**
+     * registra la duracion de cada fase de la peticion en el histograma de su
+     * endpoint y si esta habilitado agrega el header Server-Timing a la respuesta
+     * 
+     * @param plan
+     *            plan de validacion del metodo
+     * @param phases
+     *            duraciones por fase
+     * @param nanos
+     *            duracion total en nanosegundos
+     */
+    private void publish(AdvicePlan plan, PhaseTimings phases, long nanos) {
+        HttpServletRequest request = RequestUtils.getCurrentHttpRequest();
+        if (Objects.nonNull(latencyRegistry)) {
+            String path = path(request, plan);
+            String httpMethod = httpMethod(request);
+            for (Phase phase : PHASES) {
+                if (phases.get(phase) > 0L) {
+                    latencyRegistry.recordPhase(httpMethod, path, phase.getMetricName(), phases.get(phase));
+                }
+            }
+        }
+        HttpServletResponse response = RequestUtils.getCurrentHttpResponse();
+        if (serverTiming && Objects.nonNull(response) && !response.isCommitted()) {
+            StringBuilder header = new StringBuilder();
+            for (Phase phase : PHASES) {
+                if (phases.get(phase) > 0L) {
+                    header.append(phase.getMetricName()).append(";dur=").append(toMillis(phases.get(phase)))
+                            .append(", ");
+                }
+            }
+            header.append("total;dur=").append(toMillis(nanos));
+            response.addHeader(SERVER_TIMING, header.toString());
+        }
+    }
+
+    /**
+     * convierte nanosegundos a milisegundos con tres decimales
+     * 
+     * @param nanos
+     *            nanosegundos
+     * @return milisegundos
+     */
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000d) / 1_000d;
+    }
+
+    /**
+     * metodo HTTP y path resuelto de la peticion
+     * 
+     * @param request
+     *            peticion actual, puede ser null
+     * @param plan
+     *            plan de validacion del metodo
+     * @return endpoint
+     */
+    private static String endpoint(HttpServletRequest request, AdvicePlan plan) {
+        return httpMethod(request) + ' ' + path(request, plan);
+    }
+
+    /**
+     * metodo HTTP de la peticion
+     * 
+     * @param request
+     *            peticion actual, puede ser null
+     * @return metodo HTTP o - si no hay peticion
+     */
+    private static String httpMethod(HttpServletRequest request) {
+        return Objects.nonNull(request) ? request.getMethod() : "-";
+    }
+
+    /**
+     * path resuelto de la peticion, si no hay peticion se usan los paths del
+     * metodo
+     * 
+     * @param request
+     *            peticion actual, puede ser null
+     * @param plan
+     *            plan de validacion del metodo
+     * @return path
+     */
+    private static String path(HttpServletRequest request, AdvicePlan plan) {
+        Object pattern = Objects.nonNull(request)
+                ? request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)
+                : null;
+        return Objects.nonNull(pattern) ? pattern.toString() : String.join(",", plan.getPaths());
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.mx.santander.commons.timer.accesslog;
+
+/**
+ * Registro inmutable del acceso a un servicio, se crea en el hilo de la
+ * peticion y se escribe en el hilo de {@link AccessLogWriter}
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class AccessLogRecord {
+    /**
+     * hora de termino en milisegundos
+     */
+    private final long timestamp;
+    /**
+     * metodo HTTP
+     */
+    private final String httpMethod;
+    /**
+     * path resuelto del servicio
+     */
+    private final String path;
+    /**
+     * OK o el nombre de la excepcion con la que termino el servicio
+     */
+    private final String status;
+    /**
+     * duracion en nanosegundos
+     */
+    private final long durationNanos;
+    /**
+     * true si se registro por exceder el umbral de lentitud
+     */
+    private final boolean slow;
+    /**
+     * canal de la peticion
+     */
+    private final String canal;
+    /**
+     * folio de operacion de la respuesta
+     */
+    private final String folio;
+
+    /**
+     * Constructor del registro
+     *
+     * @param timestamp
+     *            hora de termino en milisegundos
+     * @param httpMethod
+     *            metodo HTTP
+     * @param path
+     *            path resuelto del servicio
+     * @param status
+     *            OK o el nombre de la excepcion
+     * @param durationNanos
+     *            duracion en nanosegundos
+     * @param slow
+     *            true si excede el umbral de lentitud
+     * @param canal
+     *            canal de la peticion
+     * @param folio
+     *            folio de operacion
+     */
+    public AccessLogRecord(long timestamp, String httpMethod, String path, String status, long durationNanos,
+            boolean slow, String canal, String folio) {
+        this.timestamp = timestamp;
+        this.httpMethod = httpMethod;
+        this.path = path;
+        this.status = status;
+        this.durationNanos = durationNanos;
+        this.slow = slow;
+        this.canal = canal;
+        this.folio = folio;
+    }
+
+    /**
+     * @return hora de termino en milisegundos
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return metodo HTTP
+     */
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    /**
+     * @return path resuelto del servicio
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return OK o el nombre de la excepcion
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * @return duracion en nanosegundos
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return true si excede el umbral de lentitud
+     */
+    public boolean isSlow() {
+        return slow;
+    }
+
+    /**
+     * @return canal de la peticion
+     */
+    public String getCanal() {
+        return canal;
+    }
+
+    /**
+     * @return folio de operacion
+     */
+    public String getFolio() {
+        return folio;
+    }
+}
@@ -0,0 +1,200 @@
+package com.mx.santander.commons.timer.accesslog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Bitacora de accesos muestreada y asincrona, por cada peticion muestreada o
+ * que excede el umbral de lentitud se encola un {@link AccessLogRecord} en un
+ * buffer circular acotado que vacia un hilo en segundo plano escribiendo una
+ * linea estructurada en el logger {@link #ACCESS_LOGGER}, si el buffer esta
+ * lleno el registro se descarta y se cuenta, de modo que los hilos de las
+ * peticiones nunca se bloquean por escribir en log, los descartes se informan
+ * en el endpoint /latency, el buffer es un {@link ArrayBlockingQueue} cuyo
+ * candado solo se toma para copiar una referencia y solo lo usan las
+ * peticiones muestreadas o lentas, por lo que su contencion es despreciable
+ * frente al costo de una cola sin bloqueos que asigna un nodo por registro
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class AccessLogWriter {
+    /**
+     * nombre del logger de accesos para configurar su propio appender
+     */
+    public static final String ACCESS_LOGGER = "com.mx.santander.commons.ACCESS";
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccessLogWriter.class);
+    /**
+     * logger de accesos
+     */
+    private static final Logger ACCESS = LoggerFactory.getLogger(ACCESS_LOGGER);
+    /**
+     * registros que se escriben por vuelta del hilo
+     */
+    private static final int BATCH_SIZE = 256;
+    /**
+     * proporcion de peticiones que se registran entre 0 y 1
+     */
+    @Value("${com.mx.santander.commons.service.timer.access-log.sample-rate:0.01}")
+    private double sampleRate;
+    /**
+     * milisegundos a partir de los cuales una peticion siempre se registra
+     */
+    @Value("${com.mx.santander.commons.service.timer.access-log.slow-threshold:1000}")
+    private long slowThresholdMillis;
+    /**
+     * capacidad del buffer de registros
+     */
+    @Value("${com.mx.santander.commons.service.timer.access-log.buffer-size:8192}")
+    private int bufferSize;
+    /**
+     * umbral de lentitud en nanosegundos
+     */
+    private long slowThresholdNanos;
+    /**
+     * buffer circular de registros pendientes de escribir
+     */
+    private BlockingQueue<AccessLogRecord> buffer;
+    /**
+     * registros descartados por buffer lleno
+     */
+    private final LongAdder dropped = new LongAdder();
+    /**
+     * hilo que escribe los registros
+     */
+    private Thread writer;
+    /**
+     * false al detener la aplicacion
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public AccessLogWriter() {
+        LOGGER.info("Inicia bitacora de accesos asincrona");
+    }
+
+    /**
+     * Crea el buffer e inicia el hilo que lo vacia
+     */
+    @PostConstruct
+    public void init() {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        buffer = new ArrayBlockingQueue<>(Math.max(bufferSize, 1));
+        running = true;
+        writer = new Thread(this::drain, "gopay-access-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Detiene el hilo y escribe los registros pendientes
+     */
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        if (Objects.nonNull(writer)) {
+            writer.interrupt();
+        }
+        List<AccessLogRecord> pending = new ArrayList<>();
+        buffer.drainTo(pending);
+        pending.forEach(AccessLogWriter::write);
+    }
+
+    /**
+     * indica si una peticion se debe registrar, siempre se registran las que
+     * exceden el umbral de lentitud y el resto segun la proporcion de muestreo
+     *
+     * @param durationNanos
+     *            duracion de la peticion
+     * @return true si se debe registrar
+     */
+    public boolean isSampled(long durationNanos) {
+        return isSlow(durationNanos) || sampleRate >= 1d
+                || sampleRate > 0d && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * indica si una peticion excede el umbral de lentitud
+     *
+     * @param durationNanos
+     *            duracion de la peticion
+     * @return true si es lenta
+     */
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= slowThresholdNanos;
+    }
+
+    /**
+     * encola el registro sin bloquear, si el buffer esta lleno se descarta
+     *
+     * @param record
+     *            registro de acceso
+     */
+    public void log(AccessLogRecord record) {
+        if (!buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * registros descartados por buffer lleno
+     *
+     * @return conteo
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * vacia el buffer por lotes mientras la aplicacion este arriba
+     */
+    private void drain() {
+        List<AccessLogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (running) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            buffer.drainTo(batch, BATCH_SIZE - 1);
+            batch.forEach(AccessLogWriter::write);
+            batch.clear();
+        }
+    }
+
+    /**
+     * escribe un registro como una linea de llave=valor
+     *
+     * @param record
+     *            registro de acceso
+     */
+    private static void write(AccessLogRecord record) {
+        ACCESS.info("ts={} method={} path={} status={} durationMs={} slow={} canal={} folio={}",
+                Instant.ofEpochMilli(record.getTimestamp()), record.getHttpMethod(), record.getPath(),
+                record.getStatus(), record.getDurationNanos() / 1_000_000d, record.isSlow(), record.getCanal(),
+                record.getFolio());
+    }
+}
@@ -3,19 +3,21 @@ package com.mx.santander.commons.timer.aspects;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.SuppressAjWarnings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.Order;
-import org.springframework.web.bind.annotation.RequestMapping;
 
+import com.mx.santander.commons.advice.AdvicePlanCache;
 import com.mx.santander.commons.model.dto.ResponseTO;
+import com.mx.santander.commons.timer.ServiceTimer;
 
 /**
  * Aspecto que camptura las peticiones al microservicio y da formato a las
  * respuesta de los servicios que se encuentren dentro de los paquetes
- * especificados por {@link #packageScan}, de lo contrario no da formato a las
- * respuestas
+ * especificados por la propiedad com.mx.santander.commons.packageScan, de lo
+ * contrario no da formato a las respuestas
  * 
  * @author Miguel Angel Garcia Labastida
  *
@@ -28,10 +30,15 @@ public class TimerAspect {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(TimerAspect.class);
     /**
-     * paquete a escanear
+     * planes de validacion por metodo
      */
-    @Value("${com.mx.santander.commons.packageScan:com.mx.santander}")
-    private String packageScan;
+    @Autowired
+    private AdvicePlanCache advicePlans;
+    /**
+     * medicion de tiempos de respuesta
+     */
+    @Autowired
+    private ServiceTimer serviceTimer;
 
     /**
      * Constructor vacio por default para cumplir con la especificacion y
@@ -55,32 +62,15 @@ public class TimerAspect {
      * 
      * @param pj
      *            point cut
-     * @param requestMapping
-     *            {@link RequestMapping}
      * @return {@link ResponseTO}
      * @throws Throwable
      *             exception
      */
-    @Around("@annotation(requestMapping) &&  args(..)")
-    public Object requestWhitoutRequest(ProceedingJoinPoint pj, RequestMapping requestMapping) throws Throwable {
+    @SuppressAjWarnings("adviceDidNotMatch")
+    @Around("execution(* *(..)) && @annotation(org.springframework.web.bind.annotation.RequestMapping) &&  args(..)")
+    public Object requestWhitoutRequest(ProceedingJoinPoint pj) throws Throwable {
         LOGGER.debug("Se ejecuta Aspecto para medir tiempos de respuesta");
-        // validamos si el advice esta dentro los paquetes validos
-        long timeStart = System.currentTimeMillis();
-        /**
-         * Obtenemos el path invocado
-         */
-        String[] paths;
-        if (requestMapping.value().length > 0) {
-            paths = requestMapping.value();
-        } else {
-            paths = requestMapping.path();
-        }
-        LOGGER.info("Inicia el servicio:{}", paths, "");
-        Object response;
-        response = pj.proceed(pj.getArgs());
-        long timeEnd = System.currentTimeMillis();
-        LOGGER.info("El servicio:{} termino en: {} ms", paths, timeEnd - timeStart);
-        return response;
+        return serviceTimer.time(advicePlans.get(pj), () -> pj.proceed(pj.getArgs()));
     }
 
 }
@@ -0,0 +1,113 @@
+package com.mx.santander.commons.timer.endpoint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+
+import com.mx.santander.commons.timer.accesslog.AccessLogWriter;
+import com.mx.santander.commons.timer.histogram.LatencyRegistry;
+import com.mx.santander.commons.timer.histogram.LatencySnapshot;
+import com.mx.santander.commons.timer.histogram.RollingLatencyHistogram;
+
+/**
+ * Endpoint de actuator /latency que expone por endpoint del microservicio los
+ * percentiles 50, 95 y 99, la latencia maxima y el numero de peticiones de la
+ * ventana movil, asi como el total de peticiones desde el arranque, las
+ * latencias se informan en milisegundos, si se habilito la medicion de recursos
+ * tambien se informan los percentiles de tiempo de CPU y de bytes asignados,
+ * si esta habilitada la bitacora de accesos se informan los registros que
+ * descarto por tener el buffer lleno
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class LatencyEndpoint extends AbstractEndpoint<Map<String, Object>> {
+    /**
+     * nanosegundos de un milisegundo
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+    /**
+     * registro de latencias
+     */
+    @Autowired
+    private LatencyRegistry latencyRegistry;
+    /**
+     * bitacora de accesos
+     */
+    @Autowired(required = false)
+    private AccessLogWriter accessLogWriter;
+
+    /**
+     * Constructor del endpoint con id latency
+     */
+    public LatencyEndpoint() {
+        super("latency");
+    }
+
+    /**
+     * percentiles por endpoint
+     */
+    @Override
+    public Map<String, Object> invoke() {
+        Map<String, Object> endpoints = new TreeMap<>();
+        latencyRegistry.getHistograms().forEach((key, histogram) -> {
+            LatencySnapshot snapshot = histogram.snapshot();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", snapshot.getCount());
+            values.put("total", snapshot.getTotal());
+            putPercentiles(values, snapshot, true);
+            RollingLatencyHistogram cpu = latencyRegistry.getCpu().get(key);
+            if (Objects.nonNull(cpu)) {
+                values.put("cpu", putPercentiles(new LinkedHashMap<>(), cpu.snapshot(), true));
+            }
+            RollingLatencyHistogram allocated = latencyRegistry.getAllocated().get(key);
+            if (Objects.nonNull(allocated)) {
+                values.put("allocatedBytes", putPercentiles(new LinkedHashMap<>(), allocated.snapshot(), false));
+            }
+            endpoints.put(key, values);
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("windowMillis", latencyRegistry.getWindowMillis());
+        if (Objects.nonNull(accessLogWriter)) {
+            result.put("accessLogDropped", accessLogWriter.getDropped());
+        }
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    /**
+     * agrega los percentiles y el maximo de la ventana
+     *
+     * @param values
+     *            mapa destino
+     * @param snapshot
+     *            percentiles de la ventana
+     * @param nanos
+     *            true si los valores son nanosegundos y se informan en
+     *            milisegundos
+     * @return mapa destino
+     */
+    private static Map<String, Object> putPercentiles(Map<String, Object> values, LatencySnapshot snapshot,
+            boolean nanos) {
+        values.put("p50", nanos ? toMillis(snapshot.getP50()) : snapshot.getP50());
+        values.put("p95", nanos ? toMillis(snapshot.getP95()) : snapshot.getP95());
+        values.put("p99", nanos ? toMillis(snapshot.getP99()) : snapshot.getP99());
+        values.put("max", nanos ? toMillis(snapshot.getMax()) : snapshot.getMax());
+        return values;
+    }
+
+    /**
+     * convierte nanosegundos a milisegundos con tres decimales
+     *
+     * @param nanos
+     *            nanosegundos
+     * @return milisegundos
+     */
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / NANOS_PER_MILLI * 1000d) / 1000d;
+    }
+}
@@ -0,0 +1,39 @@
+package com.mx.santander.commons.timer.endpoint;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+
+import com.mx.santander.commons.timer.watchdog.SlowRequestReport;
+import com.mx.santander.commons.timer.watchdog.SlowRequestWatchdog;
+
+/**
+ * Endpoint de actuator /slowrequests que expone los ultimos reportes de
+ * peticiones lentas con sus pilas colapsadas, endpoint y folio de operacion
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class SlowRequestEndpoint extends AbstractEndpoint<List<SlowRequestReport>> {
+    /**
+     * vigilante de peticiones lentas
+     */
+    @Autowired
+    private SlowRequestWatchdog watchdog;
+
+    /**
+     * Constructor del endpoint con id slowrequests
+     */
+    public SlowRequestEndpoint() {
+        super("slowrequests");
+    }
+
+    /**
+     * ultimos reportes de peticiones lentas
+     */
+    @Override
+    public List<SlowRequestReport> invoke() {
+        return watchdog.getReports();
+    }
+}
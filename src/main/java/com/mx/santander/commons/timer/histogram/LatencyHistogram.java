@@ -0,0 +1,126 @@
+package com.mx.santander.commons.timer.histogram;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma log-lineal de latencias en nanosegundos sin bloqueos al estilo
+ * HdrHistogram, cada potencia de dos se divide en subintervalos segun la
+ * precision, con {@link #PRECISE} el error relativo de los percentiles es
+ * menor al 4% y ocupa cerca de 9KB, con {@link #COARSE} es menor al 13% y
+ * ocupa cerca de 2.4KB, registrar una latencia es un incremento atomico en un
+ * {@link AtomicLongArray}
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class LatencyHistogram {
+    /**
+     * bits de resolucion por potencia de dos para la latencia de los endpoints
+     */
+    public static final int PRECISE = 5;
+    /**
+     * bits de resolucion por potencia de dos para las fases y los recursos
+     */
+    public static final int COARSE = 3;
+    /**
+     * latencia maxima que se distingue, 2^40 nanosegundos son poco mas de 18
+     * minutos, las latencias mayores se registran en el ultimo intervalo
+     */
+    private static final long MAX_VALUE = (1L << 40) - 1;
+    /**
+     * bits de resolucion por potencia de dos
+     */
+    private final int subBucketBits;
+    /**
+     * conteo por intervalo
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * Constructor del histograma
+     *
+     * @param subBucketBits
+     *            bits de resolucion por potencia de dos, {@link #PRECISE} o
+     *            {@link #COARSE}
+     */
+    public LatencyHistogram(int subBucketBits) {
+        this.subBucketBits = subBucketBits;
+        this.counts = new AtomicLongArray(buckets(subBucketBits));
+    }
+
+    /**
+     * registra una latencia
+     *
+     * @param nanos
+     *            latencia en nanosegundos
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(index(Math.min(Math.max(nanos, 0L), MAX_VALUE), subBucketBits));
+    }
+
+    /**
+     * suma los conteos del histograma en el arreglo destino
+     *
+     * @param target
+     *            conteos acumulados de la misma precision
+     */
+    void addTo(long[] target) {
+        for (int i = 0; i < counts.length(); i++) {
+            target[i] += counts.get(i);
+        }
+    }
+
+    /**
+     * arreglo vacio para acumular conteos de varios histogramas
+     *
+     * @param subBucketBits
+     *            bits de resolucion por potencia de dos
+     * @return conteos en cero
+     */
+    static long[] newCounts(int subBucketBits) {
+        return new long[buckets(subBucketBits)];
+    }
+
+    /**
+     * numero de intervalos de una precision
+     *
+     * @param subBucketBits
+     *            bits de resolucion por potencia de dos
+     * @return intervalos
+     */
+    private static int buckets(int subBucketBits) {
+        return index(MAX_VALUE, subBucketBits) + 1;
+    }
+
+    /**
+     * intervalo de una latencia, los valores menores a dos veces el numero de
+     * subintervalos tienen intervalo propio y los mayores se agrupan por potencia
+     * de dos en subintervalos
+     *
+     * @param value
+     *            latencia en nanosegundos
+     * @param subBucketBits
+     *            bits de resolucion por potencia de dos
+     * @return indice del intervalo
+     */
+    static int index(long value, int subBucketBits) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - subBucketBits);
+        return (shift << subBucketBits) + (int) (value >>> shift);
+    }
+
+    /**
+     * mayor latencia que cae en el intervalo
+     *
+     * @param index
+     *            indice del intervalo
+     * @param subBucketBits
+     *            bits de resolucion por potencia de dos
+     * @return latencia en nanosegundos
+     */
+    static long highestValue(int index, int subBucketBits) {
+        int subBuckets = 1 << subBucketBits;
+        int shift = index < 2 * subBuckets ? 0 : index / subBuckets - 1;
+        long lowest = (long) (index - shift * subBuckets) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,167 @@
+package com.mx.santander.commons.timer.histogram;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Registro de histogramas de latencia por endpoint, la llave es el metodo HTTP
+ * y el path resuelto del servicio, cada endpoint tiene un
+ * {@link RollingLatencyHistogram} con la ventana configurada, la latencia del
+ * endpoint usa {@link LatencyHistogram#PRECISE} y sus fases, tiempo de CPU y
+ * bytes asignados usan {@link LatencyHistogram#COARSE} porque son varias
+ * llaves por endpoint y solo sirven para ubicar en donde se va el tiempo
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class LatencyRegistry {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LatencyRegistry.class);
+    /**
+     * duracion en milisegundos de la ventana movil
+     */
+    @Value("${com.mx.santander.commons.service.timer.window:60000}")
+    private long windowMillis;
+    /**
+     * intervalos en que se divide la ventana
+     */
+    @Value("${com.mx.santander.commons.service.timer.window-slots:6}")
+    private int windowSlots;
+    /**
+     * histogramas por endpoint
+     */
+    private final Map<String, RollingLatencyHistogram> histograms = new ConcurrentHashMap<>();
+    /**
+     * histogramas de tiempo de CPU por endpoint
+     */
+    private final Map<String, RollingLatencyHistogram> cpu = new ConcurrentHashMap<>();
+    /**
+     * histogramas de bytes asignados por endpoint
+     */
+    private final Map<String, RollingLatencyHistogram> allocated = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public LatencyRegistry() {
+        LOGGER.info("Inicia registro de latencias por endpoint");
+    }
+
+    /**
+     * registra la latencia de una peticion
+     *
+     * @param httpMethod
+     *            metodo HTTP
+     * @param path
+     *            path resuelto del servicio
+     * @param nanos
+     *            latencia en nanosegundos
+     */
+    public void record(String httpMethod, String path, long nanos) {
+        histogram(histograms, httpMethod + ' ' + path, LatencyHistogram.PRECISE).record(nanos);
+    }
+
+    /**
+     * registra el tiempo de CPU y los bytes asignados de una peticion con la misma
+     * llave que su latencia
+     *
+     * @param httpMethod
+     *            metodo HTTP
+     * @param path
+     *            path resuelto del servicio
+     * @param cpuNanos
+     *            tiempo de CPU en nanosegundos
+     * @param allocatedBytes
+     *            bytes asignados
+     */
+    public void recordResources(String httpMethod, String path, long cpuNanos, long allocatedBytes) {
+        String key = httpMethod + ' ' + path;
+        histogram(cpu, key, LatencyHistogram.COARSE).record(cpuNanos);
+        histogram(allocated, key, LatencyHistogram.COARSE).record(allocatedBytes);
+    }
+
+    /**
+     * registra la duracion de una fase de una peticion, se agrupa con la llave del
+     * endpoint seguida del nombre de la fase entre corchetes
+     *
+     * @param httpMethod
+     *            metodo HTTP
+     * @param path
+     *            path resuelto del servicio
+     * @param phase
+     *            nombre de la fase
+     * @param nanos
+     *            duracion en nanosegundos
+     */
+    public void recordPhase(String httpMethod, String path, String phase, long nanos) {
+        histogram(histograms, httpMethod + ' ' + path + " [" + phase + ']', LatencyHistogram.COARSE).record(nanos);
+    }
+
+    /**
+     * histograma de una llave, si no existe se crea
+     *
+     * @param target
+     *            mapa de histogramas
+     * @param key
+     *            llave del histograma
+     * @param subBucketBits
+     *            bits de resolucion del histograma
+     * @return {@link RollingLatencyHistogram}
+     */
+    private RollingLatencyHistogram histogram(Map<String, RollingLatencyHistogram> target, String key,
+            int subBucketBits) {
+        RollingLatencyHistogram histogram = target.get(key);
+        if (Objects.isNull(histogram)) {
+            histogram = target.computeIfAbsent(key,
+                    k -> new RollingLatencyHistogram(windowMillis, windowSlots, subBucketBits));
+        }
+        return histogram;
+    }
+
+    /**
+     * histogramas por endpoint
+     *
+     * @return mapa no modificable de histogramas
+     */
+    public Map<String, RollingLatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * histogramas de tiempo de CPU por endpoint
+     *
+     * @return mapa no modificable de histogramas
+     */
+    public Map<String, RollingLatencyHistogram> getCpu() {
+        return Collections.unmodifiableMap(cpu);
+    }
+
+    /**
+     * histogramas de bytes asignados por endpoint
+     *
+     * @return mapa no modificable de histogramas
+     */
+    public Map<String, RollingLatencyHistogram> getAllocated() {
+        return Collections.unmodifiableMap(allocated);
+    }
+
+    /**
+     * duracion de la ventana movil
+     *
+     * @return milisegundos
+     */
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+}
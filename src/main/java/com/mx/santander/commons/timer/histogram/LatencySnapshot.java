@@ -0,0 +1,145 @@
+package com.mx.santander.commons.timer.histogram;
+
+/**
+ * Percentiles de latencia de una ventana de {@link RollingLatencyHistogram},
+ * los percentiles se reportan como el mayor valor de su intervalo acotado por
+ * la latencia maxima observada
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class LatencySnapshot {
+    /**
+     * registros de la ventana
+     */
+    private final long count;
+    /**
+     * registros desde el arranque
+     */
+    private final long total;
+    /**
+     * percentil 50 en nanosegundos
+     */
+    private final long p50;
+    /**
+     * percentil 95 en nanosegundos
+     */
+    private final long p95;
+    /**
+     * percentil 99 en nanosegundos
+     */
+    private final long p99;
+    /**
+     * latencia maxima de la ventana en nanosegundos
+     */
+    private final long max;
+
+    /**
+     * Constructor que calcula los percentiles de los conteos
+     *
+     * @param counts
+     *            conteos por intervalo de {@link LatencyHistogram}
+     * @param subBucketBits
+     *            bits de resolucion de los conteos
+     * @param max
+     *            latencia maxima de la ventana
+     * @param total
+     *            registros desde el arranque
+     */
+    LatencySnapshot(long[] counts, int subBucketBits, long max, long total) {
+        long sum = 0L;
+        for (long c : counts) {
+            sum += c;
+        }
+        this.count = sum;
+        this.total = total;
+        this.max = max;
+        this.p50 = percentile(counts, subBucketBits, sum, 0.50, max);
+        this.p95 = percentile(counts, subBucketBits, sum, 0.95, max);
+        this.p99 = percentile(counts, subBucketBits, sum, 0.99, max);
+    }
+
+    /**
+     * calcula un percentil recorriendo los conteos acumulados
+     *
+     * @param counts
+     *            conteos por intervalo
+     * @param subBucketBits
+     *            bits de resolucion de los conteos
+     * @param sum
+     *            total de conteos
+     * @param quantile
+     *            percentil entre 0 y 1
+     * @param max
+     *            latencia maxima observada
+     * @return latencia en nanosegundos
+     */
+    private static long percentile(long[] counts, int subBucketBits, long sum, double quantile, long max) {
+        if (sum == 0L) {
+            return 0L;
+        }
+        long rank = Math.max((long) Math.ceil(quantile * sum), 1L);
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValue(i, subBucketBits), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * registros de la ventana
+     *
+     * @return conteo
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * registros desde el arranque
+     *
+     * @return conteo
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * percentil 50
+     *
+     * @return nanosegundos
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * percentil 95
+     *
+     * @return nanosegundos
+     */
+    public long getP95() {
+        return p95;
+    }
+
+    /**
+     * percentil 99
+     *
+     * @return nanosegundos
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * latencia maxima de la ventana
+     *
+     * @return nanosegundos
+     */
+    public long getMax() {
+        return max;
+    }
+}
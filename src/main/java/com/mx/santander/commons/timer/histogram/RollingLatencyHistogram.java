@@ -0,0 +1,156 @@
+package com.mx.santander.commons.timer.histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias de una ventana movil, la ventana se divide en
+ * intervalos de tiempo que se reutilizan en anillo, cada intervalo tiene su
+ * {@link LatencyHistogram} y su latencia maxima, al consultar se suman los
+ * intervalos vigentes, al rotar un intervalo se publica uno nuevo en lugar de
+ * reiniciar el anterior, asi una consulta nunca mezcla conteos de dos vueltas
+ * del anillo y solo se pierden los registros concurrentes que aun escribian en
+ * el intervalo descartado, el histograma de un intervalo se crea hasta su
+ * primer registro para que los endpoints con poco trafico no reserven la
+ * ventana completa
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class RollingLatencyHistogram {
+    /**
+     * milisegundos de cada intervalo
+     */
+    private final long slotMillis;
+    /**
+     * bits de resolucion de los histogramas de los intervalos
+     */
+    private final int subBucketBits;
+    /**
+     * intervalos de la ventana
+     */
+    private final Slot[] slots;
+    /**
+     * registros desde el arranque
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Constructor del histograma
+     *
+     * @param windowMillis
+     *            duracion de la ventana en milisegundos
+     * @param slotCount
+     *            intervalos en que se divide la ventana
+     * @param subBucketBits
+     *            bits de resolucion por potencia de dos,
+     *            {@link LatencyHistogram#PRECISE} o {@link LatencyHistogram#COARSE}
+     */
+    public RollingLatencyHistogram(long windowMillis, int slotCount, int subBucketBits) {
+        int count = Math.max(slotCount, 1);
+        this.slotMillis = Math.max(windowMillis / count, 1L);
+        this.subBucketBits = subBucketBits;
+        this.slots = new Slot[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * registra una latencia en el intervalo actual
+     *
+     * @param nanos
+     *            latencia en nanosegundos
+     */
+    public void record(long nanos) {
+        long epoch = System.currentTimeMillis() / slotMillis;
+        Interval interval = slots[(int) (epoch % slots.length)].roll(epoch, subBucketBits);
+        interval.histogram.record(nanos);
+        interval.max.accumulateAndGet(nanos, Math::max);
+        total.increment();
+    }
+
+    /**
+     * suma los intervalos vigentes de la ventana
+     *
+     * @return {@link LatencySnapshot}
+     */
+    public LatencySnapshot snapshot() {
+        long epoch = System.currentTimeMillis() / slotMillis;
+        long[] counts = LatencyHistogram.newCounts(subBucketBits);
+        long max = 0L;
+        for (Slot slot : slots) {
+            Interval interval = slot.current.get();
+            if (interval != null && interval.epoch > epoch - slots.length) {
+                interval.histogram.addTo(counts);
+                max = Math.max(max, interval.max.get());
+            }
+        }
+        return new LatencySnapshot(counts, subBucketBits, max, total.sum());
+    }
+
+    /**
+     * Posicion del anillo de la ventana
+     */
+    private static final class Slot {
+        /**
+         * intervalo vigente de la posicion, nulo hasta el primer registro
+         */
+        private final AtomicReference<Interval> current = new AtomicReference<>();
+
+        /**
+         * obtiene el intervalo actual de la posicion, si pertenece a una vuelta
+         * anterior del anillo publica uno nuevo con compare and set, el hilo que
+         * pierde usa el intervalo que publico el ganador
+         *
+         * @param epoch
+         *            numero de intervalo actual
+         * @param subBucketBits
+         *            bits de resolucion del histograma
+         * @return {@link Interval}
+         */
+        private Interval roll(long epoch, int subBucketBits) {
+            Interval interval = current.get();
+            while (interval == null || interval.epoch < epoch) {
+                Interval next = new Interval(epoch, subBucketBits);
+                if (current.compareAndSet(interval, next)) {
+                    return next;
+                }
+                interval = current.get();
+            }
+            return interval;
+        }
+    }
+
+    /**
+     * Conteos de un intervalo de tiempo, no se reinicia, al rotar se reemplaza
+     */
+    private static final class Interval {
+        /**
+         * numero de intervalo desde epoch al que corresponden los conteos
+         */
+        private final long epoch;
+        /**
+         * conteos del intervalo
+         */
+        private final LatencyHistogram histogram;
+        /**
+         * latencia maxima del intervalo
+         */
+        private final AtomicLong max = new AtomicLong();
+
+        /**
+         * Constructor del intervalo
+         *
+         * @param epoch
+         *            numero de intervalo desde epoch
+         * @param subBucketBits
+         *            bits de resolucion del histograma
+         */
+        private Interval(long epoch, int subBucketBits) {
+            this.epoch = epoch;
+            this.histogram = new LatencyHistogram(subBucketBits);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.mx.santander.commons.timer.phase;
+
+/**
+ * Fases en que se divide el tiempo de una peticion, el controller es el tiempo
+ * propio del servicio, es decir el tiempo total menos las fases de commons y
+ * las llamadas a otros servicios
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public enum Phase {
+    /**
+     * validacion de sesion en redis
+     */
+    SESSION("session"),
+    /**
+     * validacion de roles del usuario con sesion
+     */
+    ROLES("roles"),
+    /**
+     * consulta y validaciones del canal
+     */
+    CHANNEL("channel"),
+    /**
+     * formato de respuesta
+     */
+    DTO("dto"),
+    /**
+     * llamadas a otros servicios con RestTemplate
+     */
+    OUTBOUND("outbound"),
+    /**
+     * ejecucion del controller sin las llamadas a otros servicios
+     */
+    CONTROLLER("controller");
+
+    /**
+     * nombre de la fase en metricas y en el header Server-Timing
+     */
+    private final String metricName;
+
+    /**
+     * Constructor de la fase
+     *
+     * @param metricName
+     *            nombre de la fase
+     */
+    Phase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * nombre de la fase en metricas y en el header Server-Timing
+     *
+     * @return nombre
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
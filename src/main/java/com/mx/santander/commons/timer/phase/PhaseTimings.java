@@ -0,0 +1,101 @@
+package com.mx.santander.commons.timer.phase;
+
+import java.util.Arrays;
+
+/**
+ * Registro de la duracion por fase de la peticion en curso, vive en el hilo de
+ * la peticion y se reutiliza entre peticiones para no crear objetos, el timer
+ * lo activa al iniciar el servicio y los aspectos, guardias e interceptores de
+ * commons acumulan su tiempo con {@link #start()} y
+ * {@link #stop(Phase, long)}, fuera de una peticion activa no registra nada
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class PhaseTimings {
+    /**
+     * registro del hilo actual
+     */
+    private static final ThreadLocal<PhaseTimings> CURRENT = ThreadLocal.withInitial(PhaseTimings::new);
+    /**
+     * nanosegundos acumulados por fase
+     */
+    private final long[] nanos = new long[Phase.values().length];
+    /**
+     * true mientras hay una peticion activa en el hilo
+     */
+    private boolean active;
+
+    /**
+     * Constructor privado, se obtiene con {@link #begin()}
+     */
+    private PhaseTimings() {
+    }
+
+    /**
+     * activa el registro del hilo actual para una nueva peticion
+     *
+     * @return registro del hilo o null si ya hay una peticion activa en el hilo
+     */
+    public static PhaseTimings begin() {
+        PhaseTimings timings = CURRENT.get();
+        if (timings.active) {
+            return null;
+        }
+        Arrays.fill(timings.nanos, 0L);
+        timings.active = true;
+        return timings;
+    }
+
+    /**
+     * inicia la medicion de una fase
+     *
+     * @return hora en nanosegundos o 0 si no hay una peticion activa
+     */
+    public static long start() {
+        return CURRENT.get().active ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * acumula la duracion de una fase
+     *
+     * @param phase
+     *            fase
+     * @param start
+     *            valor de {@link #start()}
+     */
+    public static void stop(Phase phase, long start) {
+        if (start == 0L) {
+            return;
+        }
+        PhaseTimings timings = CURRENT.get();
+        if (timings.active) {
+            timings.nanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * termina la peticion, calcula la fase del controller como el tiempo total
+     * menos las fases de commons y las llamadas a otros servicios
+     *
+     * @param totalNanos
+     *            duracion total de la peticion
+     */
+    public void end(long totalNanos) {
+        active = false;
+        long commons = nanos[Phase.SESSION.ordinal()] + nanos[Phase.ROLES.ordinal()]
+                + nanos[Phase.CHANNEL.ordinal()] + nanos[Phase.DTO.ordinal()] + nanos[Phase.OUTBOUND.ordinal()];
+        nanos[Phase.CONTROLLER.ordinal()] = Math.max(totalNanos - commons, 0L);
+    }
+
+    /**
+     * duracion acumulada de una fase
+     *
+     * @param phase
+     *            fase
+     * @return nanosegundos
+     */
+    public long get(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+}
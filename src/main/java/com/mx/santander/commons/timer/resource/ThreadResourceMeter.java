@@ -0,0 +1,97 @@
+package com.mx.santander.commons.timer.resource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mide el tiempo de CPU y los bytes asignados por el hilo actual con las
+ * extensiones de HotSpot de {@link ThreadMXBean}, si la JVM no las soporta o
+ * estan deshabilitadas la medicion no esta disponible y el timer la omite
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ThreadResourceMeter {
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadResourceMeter.class);
+    /**
+     * bean de hilos de HotSpot, null si la JVM no lo soporta
+     */
+    private com.sun.management.ThreadMXBean threadBean;
+    /**
+     * true si se puede medir CPU y memoria asignada
+     */
+    private boolean supported;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public ThreadResourceMeter() {
+        LOGGER.info("Inicia medicion de CPU y memoria asignada por peticion");
+    }
+
+    /**
+     * Habilita la medicion de CPU y memoria asignada por hilo si la JVM la soporta
+     */
+    @PostConstruct
+    public void init() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            LOGGER.warn("La JVM no soporta la medicion de memoria asignada por hilo");
+            return;
+        }
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        try {
+            if (threadBean.isThreadCpuTimeSupported() && !threadBean.isThreadCpuTimeEnabled()) {
+                threadBean.setThreadCpuTimeEnabled(true);
+            }
+            if (threadBean.isThreadAllocatedMemorySupported() && !threadBean.isThreadAllocatedMemoryEnabled()) {
+                threadBean.setThreadAllocatedMemoryEnabled(true);
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            LOGGER.warn("No fue posible habilitar la medicion de CPU y memoria por hilo", e);
+        }
+        supported = threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled()
+                && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled();
+        if (!supported) {
+            LOGGER.warn("La JVM no soporta la medicion de CPU y memoria asignada por hilo");
+        }
+    }
+
+    /**
+     * indica si se puede medir CPU y memoria asignada
+     *
+     * @return true si la medicion esta disponible
+     */
+    public boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * tiempo de CPU consumido por el hilo actual
+     *
+     * @return nanosegundos
+     */
+    public long cpuNanos() {
+        return threadBean.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * bytes asignados por el hilo actual desde su inicio
+     *
+     * @return bytes
+     */
+    public long allocatedBytes() {
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,121 @@
+package com.mx.santander.commons.timer.watchdog;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reporte de una peticion lenta con las muestras de su pila agregadas en
+ * formato collapsed stack, cada llave es la pila de la raiz a la hoja separada
+ * por punto y coma y el valor el numero de muestras, formato que aceptan las
+ * herramientas de flame graphs
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public final class SlowRequestReport {
+    /**
+     * hora de termino en milisegundos
+     */
+    private final long timestamp;
+    /**
+     * metodo HTTP y path resuelto del servicio
+     */
+    private final String endpoint;
+    /**
+     * folio de operacion de la respuesta
+     */
+    private final String folio;
+    /**
+     * hilo que atendio la peticion
+     */
+    private final String thread;
+    /**
+     * duracion en milisegundos
+     */
+    private final long durationMillis;
+    /**
+     * muestras por pila colapsada
+     */
+    private final Map<String, Integer> stacks;
+
+    /**
+     * Constructor del reporte
+     *
+     * @param timestamp
+     *            hora de termino en milisegundos
+     * @param endpoint
+     *            metodo HTTP y path del servicio
+     * @param folio
+     *            folio de operacion
+     * @param thread
+     *            hilo de la peticion
+     * @param durationMillis
+     *            duracion en milisegundos
+     * @param stacks
+     *            muestras por pila colapsada
+     */
+    SlowRequestReport(long timestamp, String endpoint, String folio, String thread, long durationMillis,
+            Map<String, Integer> stacks) {
+        this.timestamp = timestamp;
+        this.endpoint = endpoint;
+        this.folio = folio;
+        this.thread = thread;
+        this.durationMillis = durationMillis;
+        this.stacks = Collections.unmodifiableMap(new LinkedHashMap<>(stacks));
+    }
+
+    /**
+     * hora de termino
+     *
+     * @return milisegundos
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * metodo HTTP y path resuelto del servicio
+     *
+     * @return endpoint
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * folio de operacion de la respuesta
+     *
+     * @return folio, null si la peticion termino con error
+     */
+    public String getFolio() {
+        return folio;
+    }
+
+    /**
+     * hilo que atendio la peticion
+     *
+     * @return nombre del hilo
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * duracion de la peticion
+     *
+     * @return milisegundos
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * muestras por pila colapsada
+     *
+     * @return mapa no modificable
+     */
+    public Map<String, Integer> getStacks() {
+        return stacks;
+    }
+}
@@ -0,0 +1,262 @@
+package com.mx.santander.commons.timer.watchdog;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Vigilante de peticiones lentas, cada peticion medida por el timer se registra
+ * al iniciar y se retira al terminar, un hilo en segundo plano revisa las
+ * peticiones en curso y a las que exceden el umbral les toma muestras de la
+ * pila de su hilo en cada intervalo hasta que terminan, al terminar las
+ * muestras se agregan en un {@link SlowRequestReport} ligado al endpoint y al
+ * folio de operacion que se escribe en el logger {@link #SLOW_LOGGER} y se
+ * conserva en memoria para consultarlo en actuator
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class SlowRequestWatchdog {
+    /**
+     * nombre del logger de peticiones lentas
+     */
+    public static final String SLOW_LOGGER = "com.mx.santander.commons.SLOW";
+    /**
+     * logger de la clase
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowRequestWatchdog.class);
+    /**
+     * logger de peticiones lentas
+     */
+    private static final Logger SLOW = LoggerFactory.getLogger(SLOW_LOGGER);
+    /**
+     * marcos maximos por muestra contados desde la hoja
+     */
+    private static final int MAX_DEPTH = 128;
+    /**
+     * milisegundos a partir de los cuales se muestrea la pila de la peticion
+     */
+    @Value("${com.mx.santander.commons.service.timer.watchdog.threshold:2000}")
+    private long thresholdMillis;
+    /**
+     * milisegundos entre muestras
+     */
+    @Value("${com.mx.santander.commons.service.timer.watchdog.sample-interval:50}")
+    private long sampleIntervalMillis;
+    /**
+     * muestras maximas por peticion
+     */
+    @Value("${com.mx.santander.commons.service.timer.watchdog.max-samples:200}")
+    private int maxSamples;
+    /**
+     * reportes que se conservan en memoria
+     */
+    @Value("${com.mx.santander.commons.service.timer.watchdog.max-reports:50}")
+    private int maxReports;
+    /**
+     * umbral en nanosegundos
+     */
+    private long thresholdNanos;
+    /**
+     * peticiones en curso
+     */
+    private final Set<Watch> active = ConcurrentHashMap.newKeySet();
+    /**
+     * ultimos reportes, el mas reciente primero
+     */
+    private final Deque<SlowRequestReport> reports = new ConcurrentLinkedDeque<>();
+    /**
+     * hilo de muestreo
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructor vacio por default para cumplir con la especificacion y
+     * requerimientos de un bean
+     *
+     * @see https://docs.oracle.com/javase/8/docs/technotes/guides/beans/index.html
+     */
+    public SlowRequestWatchdog() {
+        LOGGER.info("Inicia vigilante de peticiones lentas");
+    }
+
+    /**
+     * Inicia el hilo de muestreo
+     */
+    @PostConstruct
+    public void init() {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("gopay-slow-watchdog-");
+        threadFactory.setDaemon(true);
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long interval = Math.max(sampleIntervalMillis, 1L);
+        executor.scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene el hilo de muestreo
+     */
+    @PreDestroy
+    public void destroy() {
+        if (Objects.nonNull(executor)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * registra el inicio de una peticion en el hilo actual
+     *
+     * @param endpoint
+     *            metodo HTTP y path del servicio
+     * @return {@link Watch} para terminar la vigilancia
+     */
+    public Watch start(String endpoint) {
+        Watch watch = new Watch(Thread.currentThread(), endpoint, System.nanoTime());
+        active.add(watch);
+        return watch;
+    }
+
+    /**
+     * termina la vigilancia de una peticion, si se tomaron muestras genera su
+     * reporte
+     *
+     * @param watch
+     *            vigilancia de la peticion
+     * @param folio
+     *            folio de operacion de la respuesta, null si no existe
+     */
+    public void stop(Watch watch, String folio) {
+        active.remove(watch);
+        Map<String, Integer> stacks;
+        synchronized (watch) {
+            watch.done = true;
+            if (watch.stacks.isEmpty()) {
+                return;
+            }
+            stacks = watch.stacks;
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - watch.startNanos);
+        SlowRequestReport report = new SlowRequestReport(System.currentTimeMillis(), watch.endpoint, folio,
+                watch.thread.getName(), durationMillis, stacks);
+        reports.addFirst(report);
+        while (reports.size() > maxReports) {
+            reports.pollLast();
+        }
+        if (SLOW.isWarnEnabled()) {
+            StringBuilder collapsed = new StringBuilder();
+            stacks.forEach((stack, count) -> collapsed.append('\n').append(stack).append(' ').append(count));
+            SLOW.warn("endpoint={} folio={} thread={} durationMs={} samples={}{}", watch.endpoint, folio,
+                    report.getThread(), durationMillis, watch.samples, collapsed);
+        }
+    }
+
+    /**
+     * ultimos reportes de peticiones lentas
+     *
+     * @return lista de reportes, el mas reciente primero
+     */
+    public List<SlowRequestReport> getReports() {
+        return new ArrayList<>(reports);
+    }
+
+    /**
+     * toma una muestra de la pila de cada peticion en curso que excede el umbral
+     */
+    private void sample() {
+        long now = System.nanoTime();
+        for (Watch watch : active) {
+            if (now - watch.startNanos < thresholdNanos || watch.samples >= maxSamples) {
+                continue;
+            }
+            String stack = collapse(watch.thread.getStackTrace());
+            synchronized (watch) {
+                if (!watch.done) {
+                    watch.stacks.merge(stack, 1, Integer::sum);
+                    watch.samples++;
+                }
+            }
+        }
+    }
+
+    /**
+     * colapsa una pila de la raiz a la hoja separando los marcos con punto y coma
+     *
+     * @param frames
+     *            pila del hilo, la hoja primero
+     * @return pila colapsada
+     */
+    private static String collapse(StackTraceElement[] frames) {
+        StringBuilder stack = new StringBuilder();
+        for (int i = Math.min(frames.length, MAX_DEPTH) - 1; i >= 0; i--) {
+            if (stack.length() > 0) {
+                stack.append(';');
+            }
+            stack.append(frames[i].getClassName()).append('.').append(frames[i].getMethodName());
+        }
+        return stack.toString();
+    }
+
+    /**
+     * Vigilancia de una peticion en curso, las muestras solo las escribe el hilo de
+     * muestreo y se leen al terminar la peticion bajo el mismo candado
+     */
+    public static final class Watch {
+        /**
+         * hilo de la peticion
+         */
+        private final Thread thread;
+        /**
+         * metodo HTTP y path del servicio
+         */
+        private final String endpoint;
+        /**
+         * hora de inicio en nanosegundos
+         */
+        private final long startNanos;
+        /**
+         * muestras por pila colapsada
+         */
+        private final Map<String, Integer> stacks = new HashMap<>();
+        /**
+         * muestras tomadas
+         */
+        private int samples;
+        /**
+         * true cuando la peticion termino
+         */
+        private boolean done;
+
+        /**
+         * Constructor de la vigilancia
+         *
+         * @param thread
+         *            hilo de la peticion
+         * @param endpoint
+         *            metodo HTTP y path del servicio
+         * @param startNanos
+         *            hora de inicio en nanosegundos
+         */
+        private Watch(Thread thread, String endpoint, long startNanos) {
+            this.thread = thread;
+            this.endpoint = endpoint;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.mx.santander.commons.utils;
 import java.util.Objects;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import org.slf4j.Logger;
@@ -48,6 +49,21 @@ public final class RequestUtils {
         return null;
     }
 
+    /**
+     * Metodo para obtener el response actual de la peticion
+     * 
+     * @return retorna el {@link HttpServletResponse} de la peticion actual o null
+     *         si no existe
+     */
+    public static HttpServletResponse getCurrentHttpResponse() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) requestAttributes).getResponse();
+        }
+        LOGGER.debug("Not called in the context of an HTTP request");
+        return null;
+    }
+
     /**
      * Metodo para obtener un header del request actual
      * 
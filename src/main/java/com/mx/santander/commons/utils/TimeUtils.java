@@ -1,13 +1,14 @@
 package com.mx.santander.commons.utils;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 
-import org.apache.commons.lang3.StringUtils;
+import com.mx.santander.commons.channel.schedule.ServiceClock;
+import com.mx.santander.commons.channel.schedule.ServiceSchedule;
 
 /**
  * Clase con utilidades para horas y tiempos
@@ -25,7 +26,10 @@ public final class TimeUtils {
 
     /**
      * Metodo para validar si la hora actual del sistema se encuentra en el rango de
-     * dias y horas especificadas
+     * dias y horas especificadas, compila el horario en cada invocacion por lo que
+     * para validaciones frecuentes se debe compilar una sola vez con
+     * {@link ServiceSchedule#compile(List, String, String)} y consultar con
+     * {@link ServiceClock}
      * 
      * @param dias
      *            dias validos
@@ -36,38 +40,25 @@ public final class TimeUtils {
      *            hora de fin debe tener el formato HH:mm:ss, con un formato de hora
      *            de 0-23
      * @param locale
-     *            {@link Locale}
+     *            {@link Locale}, ya no se utiliza, los dias se aceptan en español
+     *            o ingles sin importar el locale
      * @return retorna true si la hora actual del sistema se encuentra dentro del
      *         rago de dias y horas validas, de lo contrario retorna false
      * @throws ParseException
      *             error si las horas no cumplen con el formato
+     * @deprecated usar {@link ServiceSchedule} y {@link ServiceClock}
      */
+    @Deprecated
     public static boolean isNowTimeInRange(List<String> dias, String horaInicio, String horaFin, Locale locale)
             throws ParseException {
-        Objects.requireNonNull(dias, "dias no puede ser nulo");
-        Objects.requireNonNull(horaInicio, "horaInicio no puede ser nulo");
-        Objects.requireNonNull(horaFin, "horaFin no puede ser nulo");
         Objects.requireNonNull(locale, "locale no puede ser nulo");
-        // obtenemos la hora actual
-        Date now = new Date();
-        // damos el formato para obtener el dia
-        SimpleDateFormat day = new SimpleDateFormat("EEE", locale);
-        // fomarto para obtener la fecha
-        SimpleDateFormat date = new SimpleDateFormat("yyyy-mm-dd");
-        // obtenemos el dia de la semana
-        String dayString = day.format(now);
-        // capitalizamos el dia
-        dayString = StringUtils.capitalize(dayString);
-        // validamos si el dia es valido en la lista de dias
-        if (!dias.contains(dayString)) {
-            return false;
+        try {
+            ServiceSchedule schedule = ServiceSchedule.compile(dias, horaInicio, horaFin);
+            return schedule.isOpen(new ServiceClock(ZoneId.systemDefault()).minuteOfWeek());
+        } catch (DateTimeParseException e) {
+            ParseException parseException = new ParseException(e.getParsedString(), e.getErrorIndex());
+            parseException.initCause(e);
+            throw parseException;
         }
-        SimpleDateFormat formatoHora = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", locale);
-        // hora inicio
-        Date hi = formatoHora.parse(date.format(now) + " " + horaInicio);
-        // hora fin
-        Date hf = formatoHora.parse(date.format(now) + " " + horaFin);
-        // validamos si la hora actual se encuentra entre la hora inicio y la hora fin
-        return now.after(hi) && now.before(hf);
     }
 }
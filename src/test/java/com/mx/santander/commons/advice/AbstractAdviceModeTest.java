@@ -0,0 +1,425 @@
+package com.mx.santander.commons.advice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.mx.santander.commons.advice.AdviceModeController.AdviceModeRequest;
+import com.mx.santander.commons.advice.AdviceModeController.AdviceModeResponse;
+import com.mx.santander.commons.channel.dao.db.IChannelsLookup;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity;
+import com.mx.santander.commons.channel.model.entity.ChannelsEntity.HorarioServicio;
+import com.mx.santander.commons.channel.registry.ChannelSnapshot;
+import com.mx.santander.commons.channel.schedule.ChannelServiceScheduler;
+import com.mx.santander.commons.channel.schedule.ServiceClock;
+import com.mx.santander.commons.channel.security.ChannelGuard;
+import com.mx.santander.commons.constant.ConstCommons;
+import com.mx.santander.commons.constant.ConstErrorCode;
+import com.mx.santander.commons.constant.ConstMessageCode;
+import com.mx.santander.commons.dto.DTOResponseWrapper;
+import com.mx.santander.commons.exceptions.MessageWithOutTraceException;
+import com.mx.santander.commons.model.dto.ResponseTOWrapper;
+import com.mx.santander.commons.model.session.entity.PrincipalUser;
+import com.mx.santander.commons.session.security.SessionGuard;
+import com.mx.santander.commons.timer.ServiceTimer;
+
+/**
+ * Reglas de los aspectos de commons que deben cumplirse igual en cualquier modo
+ * de ejecucion, cada modo registra sus aspectos con
+ * {@link #modeConfiguration()} y se valida la respuesta envuelta, los rechazos
+ * de sesion, rol y canal con sus codigos de error, y el orden de los aspectos
+ * timer, DTO, roles, sesion y canal
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public abstract class AbstractAdviceModeTest {
+    /**
+     * canal activo de las peticiones
+     */
+    private static final String CANAL = "ADVICE";
+    /**
+     * canal desactivado
+     */
+    private static final String CANAL_INACTIVO = "ADVICE_INACTIVO";
+    /**
+     * canal activo sin horario de servicio
+     */
+    private static final String CANAL_CERRADO = "ADVICE_CERRADO";
+    /**
+     * invocaciones registradas por los aspectos y el controller en orden
+     */
+    private static final List<String> CALLS = new ArrayList<>();
+    /**
+     * contexto de spring con los aspectos del modo
+     */
+    private AnnotationConfigApplicationContext context;
+    /**
+     * controller con los aspectos aplicados
+     */
+    private AdviceModeController controller;
+    /**
+     * formato de respuesta de exito
+     */
+    private DTOResponseWrapper dtoResponseWrapper;
+
+    /**
+     * configuracion con los aspectos del modo de ejecucion
+     *
+     * @return clase de la configuracion
+     */
+    protected abstract Class<?> modeConfiguration();
+
+    /**
+     * indica si el modo se puede probar con las clases compiladas
+     *
+     * @return true si se ejecutan las pruebas del modo
+     */
+    protected abstract boolean isApplicable();
+
+    /**
+     * registra una invocacion
+     *
+     * @param call
+     *            aspecto o controller invocado
+     */
+    static void record(String call) {
+        CALLS.add(call);
+    }
+
+    /**
+     * indica si el controller fue tejido con los aspectos de commons en
+     * compilacion, ajc agrega un metodo _aroundBody por cada punto de union
+     *
+     * @return true si el controller esta tejido
+     */
+    protected static boolean isControllerWoven() {
+        for (Method method : AdviceModeController.class.getDeclaredMethods()) {
+            if (method.getName().contains("_aroundBody")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Levanta el contexto con los aspectos del modo y abre los canales
+     */
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("El modo no aplica a las clases compiladas", isApplicable());
+        CALLS.clear();
+        context = new AnnotationConfigApplicationContext();
+        context.register(AdviceModeConfiguration.class, modeConfiguration());
+        context.refresh();
+        context.getBean(ChannelServiceScheduler.class)
+                .onSnapshot(context.getBean(AdviceModeConfiguration.class).snapshot);
+        controller = context.getBean(AdviceModeController.class);
+        dtoResponseWrapper = context.getBean(DTOResponseWrapper.class);
+    }
+
+    /**
+     * Cierra el contexto y limpia la peticion actual
+     */
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * la respuesta de exito se envuelve con el codigo, mensaje y folio de exito
+     * despues de ejecutar todos los aspectos en orden
+     */
+    @Test
+    public void successIsWrapped() {
+        request(CANAL, true, AdviceModeController.ROLE);
+        Object response = controller.consulta(new AdviceModeRequest("1"));
+
+        assertTrue(response instanceof ResponseTOWrapper);
+        ResponseTOWrapper wrapper = (ResponseTOWrapper) response;
+        assertTrue(dtoResponseWrapper.isSuccess(wrapper));
+        assertEquals(Integer.valueOf(dtoResponseWrapper.getGenericSuccessMessageCode()),
+                wrapper.getCodigoDeOperacion());
+        assertNotNull(wrapper.getFolioDeOperacion());
+        assertEquals("1", ((AdviceModeResponse) wrapper.getData()).getId());
+        assertEquals(Arrays.asList("timer", "dto", "roles", "session", "channel", "controller"), CALLS);
+    }
+
+    /**
+     * sin el rol requerido se rechaza antes de validar sesion y canal
+     */
+    @Test
+    public void missingRoleIsRejected() {
+        request(CANAL, true, "OTRO");
+        MessageWithOutTraceException e = rejection(() -> controller.consulta(new AdviceModeRequest("1")));
+
+        assertEquals(ConstMessageCode.SESSION_ROLE_NO_AUTORIZADO, e.getMessageCode());
+        assertEquals(ConstErrorCode.SESSION_ROLE_NO_AUTORIZADO, e.getErrorCode());
+        assertEquals(Arrays.asList("timer", "dto", "roles"), CALLS);
+    }
+
+    /**
+     * sin sesion se rechaza antes de validar el canal
+     */
+    @Test
+    public void missingSessionIsRejected() {
+        request(CANAL, false);
+        MessageWithOutTraceException e = rejection(() -> controller.horario(new AdviceModeRequest("1")));
+
+        assertEquals(ConstMessageCode.SESSION_EXPIRADA, e.getMessageCode());
+        assertEquals(ConstErrorCode.SESSION_EXPIRADA, e.getErrorCode());
+        assertEquals(Arrays.asList("timer", "dto", "session"), CALLS);
+    }
+
+    /**
+     * un canal que no existe se rechaza sin ejecutar el servicio
+     */
+    @Test
+    public void unknownChannelIsRejected() {
+        request("DESCONOCIDO", true, AdviceModeController.ROLE);
+        MessageWithOutTraceException e = rejection(() -> controller.consulta(new AdviceModeRequest("1")));
+
+        assertEquals(ConstMessageCode.ACCESO_DENEGADO_CANAL, e.getMessageCode());
+        assertEquals(ConstErrorCode.ACCESO_DENEGADO_CANAL, e.getErrorCode());
+        assertEquals(Arrays.asList("timer", "dto", "roles", "session", "channel"), CALLS);
+    }
+
+    /**
+     * un canal desactivado se rechaza como fuera de servicio
+     */
+    @Test
+    public void inactiveChannelIsRejected() {
+        request(CANAL_INACTIVO, true, AdviceModeController.ROLE);
+        MessageWithOutTraceException e = rejection(() -> controller.consulta(new AdviceModeRequest("1")));
+
+        assertEquals(ConstMessageCode.ACCESO_CANAL_FUERA_SERVICIO, e.getMessageCode());
+        assertEquals(ConstErrorCode.ACCESO_CANAL_FUERA_SERVICIO, e.getErrorCode());
+        assertEquals(Arrays.asList("timer", "dto", "roles", "session", "channel"), CALLS);
+    }
+
+    /**
+     * un canal fuera de su horario se rechaza como fuera de servicio
+     */
+    @Test
+    public void closedChannelIsRejected() {
+        request(CANAL_CERRADO, true);
+        MessageWithOutTraceException e = rejection(() -> controller.horario(new AdviceModeRequest("1")));
+
+        assertEquals(ConstMessageCode.ACCESO_CANAL_FUERA_SERVICIO, e.getMessageCode());
+        assertEquals(ConstErrorCode.ACCESO_CANAL_FUERA_SERVICIO, e.getErrorCode());
+        assertEquals(Arrays.asList("timer", "dto", "session", "channel"), CALLS);
+    }
+
+    /**
+     * Simula la peticion actual con el header del canal y la sesion
+     *
+     * @param canal
+     *            header del canal
+     * @param session
+     *            true si la peticion tiene sesion
+     * @param roles
+     *            roles del usuario de la sesion
+     */
+    private static void request(String canal, boolean session, String... roles) {
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("POST", "/advice/consulta");
+        httpRequest.addHeader(ConstCommons.XCHANNEL, canal);
+        if (session) {
+            MockHttpSession httpSession = new MockHttpSession();
+            PrincipalUser principal = new PrincipalUser();
+            principal.setRoles(Arrays.asList(roles));
+            principal.setLastAccess(new Date());
+            httpSession.setAttribute(PrincipalUser.ATTRIBUTE_SESSION_NAME, principal);
+            httpRequest.setSession(httpSession);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+    }
+
+    /**
+     * Ejecuta el servicio esperando el rechazo de commons
+     *
+     * @param service
+     *            invocacion del servicio
+     * @return rechazo
+     */
+    private static MessageWithOutTraceException rejection(Callable<Object> service) {
+        try {
+            service.call();
+        } catch (MessageWithOutTraceException e) {
+            return e;
+        } catch (Exception e) {
+            throw new AssertionError("Rechazo inesperado", e);
+        }
+        fail("El servicio no fue rechazado");
+        return null;
+    }
+
+    /**
+     * canal de la fotografia
+     *
+     * @param canal
+     *            clave del canal
+     * @param activo
+     *            true si el canal tiene acceso
+     * @param horario
+     *            horario de servicio
+     * @return canal
+     */
+    private static ChannelsEntity channel(String canal, boolean activo, HorarioServicio horario) {
+        ChannelsEntity channel = new ChannelsEntity();
+        channel.setCanal(canal);
+        channel.setNombre(canal);
+        channel.setActivo(activo);
+        channel.setHorarioServicio(horario);
+        return channel;
+    }
+
+    /**
+     * Configuracion con los beans que usan los aspectos, los guardias registran
+     * su invocacion y el canal se consulta de una fotografia en memoria
+     *
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Configuration
+    public static class AdviceModeConfiguration {
+        /**
+         * fotografia con el canal activo, el desactivado y el cerrado
+         */
+        private final ChannelSnapshot snapshot;
+
+        /**
+         * Constructor de la configuracion, arma la fotografia de canales
+         */
+        public AdviceModeConfiguration() {
+            snapshot = new ChannelSnapshot(Arrays.asList(channel(CANAL, true, null),
+                    channel(CANAL_INACTIVO, false, null),
+                    channel(CANAL_CERRADO, true, new HorarioServicio())), System.currentTimeMillis(), null);
+        }
+
+        /**
+         * @return {@link AdviceModeController}
+         */
+        @Bean
+        public AdviceModeController adviceModeController() {
+            return new AdviceModeController();
+        }
+
+        /**
+         * @return {@link AdvicePlanCache}
+         */
+        @Bean
+        public AdvicePlanCache advicePlanCache() {
+            return new AdvicePlanCache();
+        }
+
+        /**
+         * @return {@link ServiceTimer} que registra su invocacion
+         */
+        @Bean
+        public ServiceTimer serviceTimer() {
+            return new ServiceTimer() {
+                @Override
+                public Object time(AdvicePlan plan, GuardedCall call) throws Throwable {
+                    record("timer");
+                    return super.time(plan, call);
+                }
+            };
+        }
+
+        /**
+         * @return {@link DTOResponseWrapper} que registra su invocacion
+         */
+        @Bean
+        public DTOResponseWrapper dtoResponseWrapper() {
+            return new DTOResponseWrapper() {
+                @Override
+                public void logRequest(Object[] args) {
+                    record("dto");
+                    super.logRequest(args);
+                }
+            };
+        }
+
+        /**
+         * @return {@link SessionGuard} que registra sus validaciones
+         */
+        @Bean
+        public SessionGuard sessionGuard() {
+            return new SessionGuard() {
+                @Override
+                public void validateRoleAccess(String[] roles) {
+                    record("roles");
+                    super.validateRoleAccess(roles);
+                }
+
+                @Override
+                public void validate() {
+                    record("session");
+                    super.validate();
+                }
+            };
+        }
+
+        /**
+         * @return {@link ChannelGuard} que registra su invocacion
+         */
+        @Bean
+        public ChannelGuard channelGuard() {
+            return new ChannelGuard() {
+                @Override
+                public Object invoke(AdvicePlan plan, GuardedCall call) throws Throwable {
+                    record("channel");
+                    return super.invoke(plan, call);
+                }
+            };
+        }
+
+        /**
+         * @return {@link IChannelsLookup} sobre la fotografia en memoria
+         */
+        @Bean
+        public IChannelsLookup channelsLookup() {
+            return canal -> snapshot.getIndex().get(canal);
+        }
+
+        /**
+         * @return {@link ServiceClock}
+         */
+        @Bean
+        public ServiceClock serviceClock() {
+            return new ServiceClock(ZoneId.systemDefault());
+        }
+
+        /**
+         * @return {@link ChannelServiceScheduler}
+         */
+        @Bean
+        public ChannelServiceScheduler channelServiceScheduler() {
+            return new ChannelServiceScheduler();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.mx.santander.commons.advice;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.mx.santander.commons.channel.anotation.ValidateHoursOfService;
+import com.mx.santander.commons.model.dto.RequestTO;
+import com.mx.santander.commons.model.dto.ResponseTO;
+import com.mx.santander.commons.session.anotation.AuthorizationRole;
+
+/**
+ * Controller sintetico sobre el que se aplican los aspectos de commons en las
+ * pruebas de los modos de ejecucion, cada servicio registra su invocacion para
+ * validar el orden de los aspectos
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class AdviceModeController {
+    /**
+     * rol requerido por el servicio de consulta
+     */
+    public static final String ROLE = "CONSULTA";
+
+    /**
+     * servicio con validacion de rol, sesion y acceso del canal
+     *
+     * @param request
+     *            peticion
+     * @return respuesta
+     */
+    @RequestMapping("/advice/consulta")
+    @AuthorizationRole(ROLE)
+    public ResponseTO consulta(AdviceModeRequest request) {
+        AbstractAdviceModeTest.record("controller");
+        return new AdviceModeResponse(request.getId());
+    }
+
+    /**
+     * servicio con validacion de sesion, acceso y horario del canal
+     *
+     * @param request
+     *            peticion
+     * @return respuesta
+     */
+    @RequestMapping("/advice/horario")
+    @ValidateHoursOfService
+    public ResponseTO horario(AdviceModeRequest request) {
+        AbstractAdviceModeTest.record("controller");
+        return new AdviceModeResponse(request.getId());
+    }
+
+    /**
+     * peticion del servicio sintetico
+     */
+    public static class AdviceModeRequest implements RequestTO {
+        /**
+         * identificador
+         */
+        private final String id;
+
+        /**
+         * Constructor de la peticion
+         *
+         * @param id
+         *            identificador
+         */
+        public AdviceModeRequest(String id) {
+            this.id = id;
+        }
+
+        /**
+         * identificador
+         *
+         * @return id
+         */
+        public String getId() {
+            return id;
+        }
+    }
+
+    /**
+     * respuesta del servicio sintetico
+     */
+    public static class AdviceModeResponse implements ResponseTO {
+        /**
+         * serial
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * identificador
+         */
+        private final String id;
+
+        /**
+         * Constructor de la respuesta
+         *
+         * @param id
+         *            identificador
+         */
+        public AdviceModeResponse(String id) {
+            this.id = id;
+        }
+
+        /**
+         * identificador
+         *
+         * @return id
+         */
+        public String getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mx.santander.commons.advice;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import com.mx.santander.commons.channel.security.aspec.ChannelAccessAspect;
+import com.mx.santander.commons.dto.aspect.DTOAspect;
+import com.mx.santander.commons.session.security.aspec.SesionAspect;
+import com.mx.santander.commons.session.security.aspec.SesionRoleAspect;
+import com.mx.santander.commons.timer.aspects.TimerAspect;
+
+/**
+ * Reglas de los aspectos en modo aspect, los aspectos se aplican con proxies de
+ * spring AOP, se ejecuta con {@code mvn test}, con el perfil aspectj el
+ * controller ya esta tejido y estas pruebas se omiten
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class ProxyAdviceModeTest extends AbstractAdviceModeTest {
+
+    @Override
+    protected Class<?> modeConfiguration() {
+        return ProxyConfiguration.class;
+    }
+
+    @Override
+    protected boolean isApplicable() {
+        return !isControllerWoven();
+    }
+
+    /**
+     * Aspectos de commons aplicados con proxies como en
+     * com.mx.santander.commons.execution.mode=aspect
+     *
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    public static class ProxyConfiguration {
+        /**
+         * @return {@link TimerAspect}
+         */
+        @Bean
+        public TimerAspect timerAspect() {
+            return new TimerAspect();
+        }
+
+        /**
+         * @return {@link DTOAspect}
+         */
+        @Bean
+        public DTOAspect dtoAspect() {
+            return new DTOAspect();
+        }
+
+        /**
+         * @return {@link SesionRoleAspect}
+         */
+        @Bean
+        public SesionRoleAspect sesionRoleAspect() {
+            return new SesionRoleAspect();
+        }
+
+        /**
+         * @return {@link SesionAspect}
+         */
+        @Bean
+        public SesionAspect sesionAspect() {
+            return new SesionAspect();
+        }
+
+        /**
+         * @return {@link ChannelAccessAspect}
+         */
+        @Bean
+        public ChannelAccessAspect channelAccessAspect() {
+            return new ChannelAccessAspect();
+        }
+    }
+}
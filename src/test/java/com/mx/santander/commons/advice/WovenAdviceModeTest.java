@@ -0,0 +1,83 @@
+package com.mx.santander.commons.advice;
+
+import org.aspectj.lang.Aspects;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mx.santander.commons.channel.security.aspec.ChannelAccessAspect;
+import com.mx.santander.commons.dto.aspect.DTOAspect;
+import com.mx.santander.commons.session.security.aspec.SesionAspect;
+import com.mx.santander.commons.session.security.aspec.SesionRoleAspect;
+import com.mx.santander.commons.timer.aspects.TimerAspect;
+
+/**
+ * Reglas de los aspectos en modo weaving, el controller se teje en compilacion
+ * y spring solo inyecta las dependencias de las instancias de ajc, se ejecuta
+ * con {@code mvn -Paspectj test}, sin el perfil el controller no esta tejido y
+ * estas pruebas se omiten
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class WovenAdviceModeTest extends AbstractAdviceModeTest {
+
+    @Override
+    protected Class<?> modeConfiguration() {
+        return WovenConfiguration.class;
+    }
+
+    @Override
+    protected boolean isApplicable() {
+        return isControllerWoven();
+    }
+
+    /**
+     * Instancias de los aspectos tejidos como en
+     * com.mx.santander.commons.execution.mode=weaving
+     *
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Configuration
+    public static class WovenConfiguration {
+        /**
+         * @return {@link TimerAspect}
+         */
+        @Bean
+        public TimerAspect timerAspect() {
+            return Aspects.aspectOf(TimerAspect.class);
+        }
+
+        /**
+         * @return {@link DTOAspect}
+         */
+        @Bean
+        public DTOAspect dtoAspect() {
+            return Aspects.aspectOf(DTOAspect.class);
+        }
+
+        /**
+         * @return {@link SesionRoleAspect}
+         */
+        @Bean
+        public SesionRoleAspect sesionRoleAspect() {
+            return Aspects.aspectOf(SesionRoleAspect.class);
+        }
+
+        /**
+         * @return {@link SesionAspect}
+         */
+        @Bean
+        public SesionAspect sesionAspect() {
+            return Aspects.aspectOf(SesionAspect.class);
+        }
+
+        /**
+         * @return {@link ChannelAccessAspect}
+         */
+        @Bean
+        public ChannelAccessAspect channelAccessAspect() {
+            return Aspects.aspectOf(ChannelAccessAspect.class);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.mx.santander.commons.dto.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mx.santander.commons.dto.DTOResponseWrapper;
+import com.mx.santander.commons.model.dto.ResponseTO;
+import com.mx.santander.commons.model.dto.ResponseTOWrapper;
+import com.mx.santander.commons.model.dto.ResponseTOWrapper.ResponseMessageTO;
+
+/**
+ * Valida que las respuestas escritas por {@link EnvelopeHttpMessageConverter}
+ * sean el mismo JSON que serializa Jackson con el mismo {@link ObjectMapper},
+ * solo puede cambiar el orden de las llaves
+ *
+ * @author Miguel Angel Garcia Labastida
+ *
+ */
+public class EnvelopeHttpMessageConverterTest {
+    /**
+     * contexto de spring con el convertidor
+     */
+    private AnnotationConfigApplicationContext context;
+    /**
+     * convertidor a validar
+     */
+    private EnvelopeHttpMessageConverter converter;
+    /**
+     * formato de respuesta de exito
+     */
+    private DTOResponseWrapper dtoResponseWrapper;
+    /**
+     * serializador de spring mvc
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * Levanta el contexto con el convertidor
+     */
+    @Before
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(ConverterConfiguration.class);
+        converter = context.getBean(EnvelopeHttpMessageConverter.class);
+        dtoResponseWrapper = context.getBean(DTOResponseWrapper.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    /**
+     * Cierra el contexto
+     */
+    @After
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * la respuesta de exito con el encabezado codificado es el mismo JSON
+     *
+     * @throws IOException
+     *             si no se puede serializar
+     */
+    @Test
+    public void successIsSameJson() throws IOException {
+        Object response = dtoResponseWrapper.wrap(new Payload("1", "comillas \" y acentos \u00E1\u00E9\u00ED"));
+
+        assertTrue(response instanceof ResponseTOWrapper);
+        ResponseTOWrapper wrapper = (ResponseTOWrapper) response;
+        assertTrue(dtoResponseWrapper.isSuccess(wrapper));
+        assertSameJson(wrapper);
+    }
+
+    /**
+     * el folio se escapa igual que en Jackson
+     *
+     * @throws IOException
+     *             si no se puede serializar
+     */
+    @Test
+    public void folioIsEscaped() throws IOException {
+        ResponseTOWrapper wrapper = (ResponseTOWrapper) dtoResponseWrapper.wrap(new Payload("2", null));
+        wrapper.setFolioDeOperacion("folio \"\\ \u00F1");
+
+        assertSameJson(wrapper);
+    }
+
+    /**
+     * una respuesta de exito modificada se serializa completa
+     *
+     * @throws IOException
+     *             si no se puede serializar
+     */
+    @Test
+    public void modifiedSuccessIsSameJson() throws IOException {
+        ResponseTOWrapper wrapper = (ResponseTOWrapper) dtoResponseWrapper.wrap(new Payload("3", null));
+        wrapper.setMensajeDev("detalle");
+
+        assertSameJson(wrapper);
+    }
+
+    /**
+     * una respuesta de error se serializa completa
+     *
+     * @throws IOException
+     *             si no se puede serializar
+     */
+    @Test
+    public void errorIsSameJson() throws IOException {
+        ResponseTOWrapper wrapper = new ResponseTOWrapper(-1000,
+                new ResponseMessageTO("Atenci\u00F3n", "Sesi\u00F3n expirada", "MSCS01"));
+
+        assertSameJson(wrapper);
+    }
+
+    /**
+     * compara el JSON escrito por el convertidor con el que serializa Jackson
+     *
+     * @param wrapper
+     *            respuesta envuelta
+     * @throws IOException
+     *             si no se puede serializar
+     */
+    private void assertSameJson(ResponseTOWrapper wrapper) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(wrapper, MediaType.APPLICATION_JSON, output);
+
+        JsonNode streamed = objectMapper.readTree(output.getBodyAsBytes());
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(wrapper));
+        assertEquals(expected, streamed);
+    }
+
+    /**
+     * respuesta de un servicio con valores anidados
+     */
+    public static class Payload implements ResponseTO {
+        /**
+         * serial
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * identificador
+         */
+        private final String id;
+        /**
+         * texto libre, se omite si es null
+         */
+        private final String nota;
+
+        /**
+         * Constructor de la respuesta
+         *
+         * @param id
+         *            identificador
+         * @param nota
+         *            texto libre
+         */
+        public Payload(String id, String nota) {
+            this.id = id;
+            this.nota = nota;
+        }
+
+        /**
+         * @return identificador
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * @return texto libre
+         */
+        public String getNota() {
+            return nota;
+        }
+
+        /**
+         * @return importe
+         */
+        public BigDecimal getMonto() {
+            return new BigDecimal("1234.50");
+        }
+
+        /**
+         * @return movimientos
+         */
+        public List<String> getMovimientos() {
+            return Arrays.asList("cargo", "abono");
+        }
+    }
+
+    /**
+     * Configuracion con el formato de respuesta, el serializador de spring mvc y
+     * el convertidor
+     *
+     * @author Miguel Angel Garcia Labastida
+     *
+     */
+    @Configuration
+    public static class ConverterConfiguration {
+        /**
+         * @return {@link DTOResponseWrapper}
+         */
+        @Bean
+        public DTOResponseWrapper dtoResponseWrapper() {
+            return new DTOResponseWrapper();
+        }
+
+        /**
+         * @return {@link ObjectMapper} como el de spring mvc
+         */
+        @Bean
+        public ObjectMapper objectMapper() {
+            return Jackson2ObjectMapperBuilder.json().build();
+        }
+
+        /**
+         * @return {@link EnvelopeHttpMessageConverter}
+         */
+        @Bean
+        public EnvelopeHttpMessageConverter envelopeHttpMessageConverter() {
+            return new EnvelopeHttpMessageConverter();
+        }
+    }
+}